@@ -0,0 +1,70 @@
+package com.infinite.pullrefresh.layout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个 MOVE 事件的阻尼计算，以及尺寸变化时的系数表重建
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DampingCurveBenchmark {
+
+    private static final int MAX_DISTANCE = 1200;
+
+    @Param({"Linear", "Logarithmic", "IOS", "Miui"})
+    public String curve;
+
+    private DampingCurve mCurve;
+    private float mMoveY;
+    private int mLimit;
+
+    @Setup
+    public void setup() {
+        if ("Logarithmic".equals(curve)) {
+            mCurve = new DampingCurve.Logarithmic();
+        } else if ("IOS".equals(curve)) {
+            mCurve = new DampingCurve.IOS();
+        } else if ("Miui".equals(curve)) {
+            mCurve = new DampingCurve.Miui();
+        } else {
+            mCurve = new DampingCurve.Linear();
+        }
+        mCurve.build(MAX_DISTANCE);
+    }
+
+    /**
+     * 模拟一次拖动中连续的 MOVE：每次手指移动 8px，拉到最大距离后从头开始
+     */
+    @Benchmark
+    public float apply() {
+        float moveY = mCurve.apply(mMoveY, 8, MAX_DISTANCE);
+        mMoveY = moveY >= MAX_DISTANCE ? 0 : moveY;
+        return moveY;
+    }
+
+    /**
+     * 两个尺寸交替，保证每次都真正重建
+     */
+    @Benchmark
+    public float build() {
+        mLimit = mLimit == MAX_DISTANCE ? MAX_DISTANCE + 1 : MAX_DISTANCE;
+        mCurve.build(mLimit);
+        return mCurve.getFactor(mLimit / 2);
+    }
+}
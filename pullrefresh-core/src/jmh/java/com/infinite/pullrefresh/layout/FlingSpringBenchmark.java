@@ -0,0 +1,53 @@
+package com.infinite.pullrefresh.layout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 松手回弹：一次完整的回弹按 16ms 一帧计算到结束
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlingSpringBenchmark {
+
+    private final FlingSpring mSpring = new FlingSpring();
+
+    @Benchmark
+    public float settle() {
+        long now = 0;
+        mSpring.start(300, 0, 0, now);
+        while (mSpring.computeOffset(now)) {
+            now += 16;
+        }
+        return mSpring.getCurrY();
+    }
+
+    @Benchmark
+    public float settleWithVelocity() {
+        long now = 0;
+        mSpring.start(300, 0, -12000, now);
+        while (mSpring.computeOffset(now)) {
+            now += 16;
+        }
+        return mSpring.getLeftoverVelocity();
+    }
+
+    @Benchmark
+    public int estimateDuration() {
+        mSpring.start(300, 0, 0, 0);
+        return mSpring.estimateDuration();
+    }
+}
@@ -0,0 +1,67 @@
+package com.infinite.pullrefresh.layout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次完整的下拉刷新：拖动越过触发位置、松手进入刷新、刷新结束、回到初始状态
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PullStateMachineBenchmark {
+
+    private static final float SPAN_HEIGHT = 180;
+    private static final int MOVE_COUNT = 60;
+
+    @Param({"false", "true"})
+    public boolean footer;
+
+    private PullStateMachine mMachine;
+    private float mDirection;
+
+    @Setup
+    public void setup() {
+        mMachine = new PullStateMachine(footer);
+        mDirection = footer ? -1 : 1;
+    }
+
+    @Benchmark
+    public int pullAndRelease() {
+        PullStateMachine machine = mMachine;
+        int changes = 0;
+        float y = 0;
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            y += 5 * mDirection;
+            if (machine.setState(machine.isReached(y, SPAN_HEIGHT) ? PullStateMachine.RELEASE : PullStateMachine.PULLING)) {
+                changes++;
+            }
+        }
+        float target = machine.getReleaseTarget(y, SPAN_HEIGHT);
+        if (machine.setState(target != 0 ? PullStateMachine.ACTIVE : PullStateMachine.NONE)) {
+            changes++;
+        }
+        machine.unlock();
+        if (machine.setState(PullStateMachine.DONE)) {
+            changes++;
+        }
+        if (machine.setState(PullStateMachine.NONE)) {
+            changes++;
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,49 @@
+package com.infinite.pullrefresh.recycler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分页加载中footer的一轮状态切换：可加载 → 加载中 → 出错 → 加载中 → 没有更多
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FooterStatusHandleBenchmark {
+
+    private static final FooterStatusHandle[] SEQUENCE = {
+            FooterStatusHandle.TYPE_PULL_LOAD_MORE,
+            FooterStatusHandle.TYPE_LOADING_MORE,
+            FooterStatusHandle.TYPE_ERROR,
+            FooterStatusHandle.TYPE_LOADING_MORE,
+            FooterStatusHandle.TYPE_NO_MORE
+    };
+
+    @Benchmark
+    public int transitions() {
+        int loads = 0;
+        boolean canLoadMore = true;
+        for (FooterStatusHandle status : SEQUENCE) {
+            if (canLoadMore && status.canAutoLoad()) {
+                loads++;
+            }
+            canLoadMore = status.canLoadMore();
+            if (status.displayed(canLoadMore).isLoading()) {
+                loads++;
+            }
+        }
+        return loads;
+    }
+}
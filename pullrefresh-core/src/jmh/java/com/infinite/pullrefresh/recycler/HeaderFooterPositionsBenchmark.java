@@ -0,0 +1,60 @@
+package com.infinite.pullrefresh.recycler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 适配器对一屏item做的位置映射：判断header/footer，再换算数据位置
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeaderFooterPositionsBenchmark {
+
+    private static final int SCREEN_ITEMS = 20;
+
+    @Param({"5000"})
+    public int dataCount;
+
+    private final HeaderFooterPositions mPositions = new HeaderFooterPositions();
+    private int mFirst;
+
+    @Setup
+    public void setup() {
+        mPositions.setHeaderVisible(true);
+        mPositions.setFooterVisible(true);
+    }
+
+    @Benchmark
+    public int mapScreen() {
+        HeaderFooterPositions positions = mPositions;
+        int itemCount = positions.getItemCount(dataCount);
+        int first = mFirst;
+        mFirst = first + SCREEN_ITEMS >= itemCount ? 0 : first + 1;
+        int sum = 0;
+        for (int position = first; position < first + SCREEN_ITEMS; position++) {
+            if (positions.isHeader(position)) {
+                sum -= 1;
+            } else if (positions.isFooter(position, dataCount)) {
+                sum -= 2;
+            } else {
+                sum += positions.getDataPosition(position);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,180 @@
+package com.infinite.pullrefresh.recycler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一页 20 个 item 创建 ViewHolder 时各种绑定方式的开销，对应 BaseRecyclerViewHolder.onBindViews 的几种写法：
+ * <ul>
+ * <li>reflective：与 ButterKnife.bind 相同，按 holder 类名反射查找 XxxHolder_ViewBinding，构造器缓存在 map 中，每次反射创建</li>
+ * <li>generated：重写 onBindViews 直接创建生成的绑定类</li>
+ * <li>manual：重写 onBindViews 手动 findViewById</li>
+ * <li>none：头部、脚部等不需要绑定的 holder（FixedViewHolder）</li>
+ * </ul>
+ * 视图使用简单的树模型代替 Android View，findViewById 同样为深度优先查找
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HolderBindingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ID_ROOT = 1;
+    private static final int ID_AVATAR = 2;
+    private static final int ID_TITLE = 3;
+    private static final int ID_CONTENT = 4;
+    private static final int ID_TIME = 5;
+
+    /**
+     * 与 ButterKnife 相同的构造器缓存
+     */
+    private static final Map<Class<?>, Constructor<?>> BINDINGS = new LinkedHashMap<>();
+
+    static class FakeView {
+        final int mId;
+        final FakeView[] mChildren;
+
+        FakeView(int id, FakeView... children) {
+            mId = id;
+            mChildren = children;
+        }
+
+        FakeView findViewById(int id) {
+            if (mId == id) {
+                return this;
+            }
+            for (FakeView child : mChildren) {
+                FakeView view = child.findViewById(id);
+                if (view != null) {
+                    return view;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 常见的 item 布局：头像、标题、内容、时间，包在两层容器中
+     */
+    private static FakeView inflate() {
+        return new FakeView(ID_ROOT,
+                new FakeView(0, new FakeView(ID_AVATAR), new FakeView(0, new FakeView(ID_TITLE), new FakeView(ID_TIME))),
+                new FakeView(ID_CONTENT));
+    }
+
+    public static class ItemHolder {
+        FakeView avatar;
+        FakeView title;
+        FakeView content;
+        FakeView time;
+    }
+
+    /**
+     * 注解处理器为 ItemHolder 生成的绑定类
+     */
+    public static class ItemHolder_ViewBinding {
+        public ItemHolder_ViewBinding(ItemHolder target, FakeView source) {
+            target.avatar = source.findViewById(ID_AVATAR);
+            target.title = source.findViewById(ID_TITLE);
+            target.content = source.findViewById(ID_CONTENT);
+            target.time = source.findViewById(ID_TIME);
+        }
+    }
+
+    private static Constructor<?> findBindingConstructor(Class<?> cls) {
+        Constructor<?> constructor = BINDINGS.get(cls);
+        if (constructor == null) {
+            try {
+                Class<?> bindingClass = cls.getClassLoader().loadClass(cls.getName() + "_ViewBinding");
+                constructor = bindingClass.getConstructor(cls, FakeView.class);
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+            BINDINGS.put(cls, constructor);
+        }
+        return constructor;
+    }
+
+    private static void bindReflective(ItemHolder holder, FakeView view) {
+        try {
+            findBindingConstructor(holder.getClass()).newInstance(holder, view);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void bindManual(ItemHolder holder, FakeView view) {
+        holder.avatar = view.findViewById(ID_AVATAR);
+        holder.title = view.findViewById(ID_TITLE);
+        holder.content = view.findViewById(ID_CONTENT);
+        holder.time = view.findViewById(ID_TIME);
+    }
+
+    private final FakeView[] mPage = new FakeView[PAGE_SIZE];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            mPage[i] = inflate();
+        }
+        //几种方式绑定的结果必须相同
+        ItemHolder reflective = new ItemHolder();
+        ItemHolder generated = new ItemHolder();
+        bindReflective(reflective, mPage[0]);
+        new ItemHolder_ViewBinding(generated, mPage[0]);
+        if (reflective.time == null || reflective.time != generated.time || reflective.avatar != generated.avatar) {
+            throw new IllegalStateException("bindings differ");
+        }
+    }
+
+    @Benchmark
+    public void reflective(Blackhole blackhole) {
+        for (FakeView view : mPage) {
+            ItemHolder holder = new ItemHolder();
+            bindReflective(holder, view);
+            blackhole.consume(holder);
+        }
+    }
+
+    @Benchmark
+    public void generated(Blackhole blackhole) {
+        for (FakeView view : mPage) {
+            ItemHolder holder = new ItemHolder();
+            blackhole.consume(new ItemHolder_ViewBinding(holder, view));
+            blackhole.consume(holder);
+        }
+    }
+
+    @Benchmark
+    public void manual(Blackhole blackhole) {
+        for (FakeView view : mPage) {
+            ItemHolder holder = new ItemHolder();
+            bindManual(holder, view);
+            blackhole.consume(holder);
+        }
+    }
+
+    @Benchmark
+    public void none(Blackhole blackhole) {
+        for (FakeView view : mPage) {
+            blackhole.consume(new ItemHolder());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.infinite.pullrefresh.support.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 10000 个 item 的列表中每个 MOVE 事件查询顶部/底部的开销：每次遍历可见 item（与 findFirstVisibleItemPosition 等相同）
+ * 和使用 {@link EdgeStateCache}。scrollEvery 为每多少个 MOVE 事件列表滚动一次，1 表示每次都失效
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EdgeStateCacheBenchmark {
+
+    private static final int ITEM_COUNT = 10000;
+    private static final int VIEWPORT = 1920;
+
+    @Param({"1", "1000000"})
+    public int scrollEvery;
+
+    /**
+     * 列表模型：item 高度不等，按滚动位置布局出可见的 item，与 LayoutManager 的子视图对应
+     */
+    private final int[] mItemTops = new int[ITEM_COUNT + 1];
+    private final int[] mChildTops = new int[64];
+    private final int[] mChildBottoms = new int[64];
+    private final int[] mChildPositions = new int[64];
+    private int mChildCount;
+    private int mScrollY;
+    private int mEvents;
+
+    private final EdgeStateCache.Detector mDetector = new EdgeStateCache.Detector() {
+        @Override
+        public boolean computeTop() {
+            return scanTop();
+        }
+
+        @Override
+        public boolean computeBottom() {
+            return scanBottom();
+        }
+    };
+    private final EdgeStateCache mCache = new EdgeStateCache(mDetector);
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            mItemTops[i + 1] = mItemTops[i] + 120 + (i * 37) % 160;
+        }
+        layout(0);
+    }
+
+    private void layout(int scrollY) {
+        mScrollY = scrollY;
+        int count = 0;
+        int position = 0;
+        while (mItemTops[position + 1] <= scrollY) {
+            position++;
+        }
+        for (; position < ITEM_COUNT && mItemTops[position] < scrollY + VIEWPORT; position++) {
+            mChildPositions[count] = position;
+            mChildTops[count] = mItemTops[position] - scrollY;
+            mChildBottoms[count] = mItemTops[position + 1] - scrollY;
+            count++;
+        }
+        mChildCount = count;
+    }
+
+    /**
+     * findFirstVisibleItemPosition == 0 且第一个 item 的顶部没有被遮住
+     */
+    private boolean scanTop() {
+        for (int i = 0; i < mChildCount; i++) {
+            if (mChildBottoms[i] > 0) {
+                return mChildPositions[i] == 0 && mChildTops[i] >= 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * findLastCompletelyVisibleItemPosition == itemCount - 1
+     */
+    private boolean scanBottom() {
+        for (int i = mChildCount - 1; i >= 0; i--) {
+            if (mChildTops[i] >= 0 && mChildBottoms[i] <= VIEWPORT) {
+                return mChildPositions[i] == ITEM_COUNT - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 到达滚动间隔时滚动一像素，列表在顶部附近来回移动
+     */
+    private void maybeScroll() {
+        if (++mEvents >= scrollEvery) {
+            mEvents = 0;
+            layout(mScrollY == 0 ? 1 : 0);
+            mCache.invalidate();
+        }
+    }
+
+    @Benchmark
+    public boolean scan() {
+        maybeScroll();
+        return scanTop() | scanBottom();
+    }
+
+    @Benchmark
+    public boolean cached() {
+        maybeScroll();
+        return mCache.isAtTop() | mCache.isAtBottom();
+    }
+}
@@ -0,0 +1,48 @@
+package com.infinite.pullrefresh.support.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 手势统计开启时每帧的记录开销，以及读取一次百分位的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HistogramBenchmark {
+
+    private final Histogram mHistogram = new Histogram();
+    private long mValue;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 10000; i++) {
+            mHistogram.record(i % 40);
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        // 在 0~2047 之间变化，覆盖精确段和分段部分
+        mValue = (mValue + 37) & 2047;
+        mHistogram.record(mValue);
+    }
+
+    @Benchmark
+    public long percentile() {
+        return mHistogram.getValueAtPercentile(99);
+    }
+}
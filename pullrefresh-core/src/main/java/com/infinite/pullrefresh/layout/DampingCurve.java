@@ -0,0 +1,132 @@
+package com.infinite.pullrefresh.layout;
+
+/**
+ * 拉动阻尼曲线
+ * <p>
+ * 手指移动 dataY 时，视图实际移动 dataY * getFactor(当前拉出的距离)。
+ * 系数按像素预先算好放在表里，只在 FlingLayout 的 onMeasure 等尺寸变化时重建，
+ * 每个 MOVE 事件只需要读一次数组
+ */
+public abstract class DampingCurve {
+
+    private float[] mTable = new float[1];
+    private int mLimit = -1;
+
+    /**
+     * 按最大拉动距离重建系数表，距离不变时直接返回
+     *
+     * @param limit 最大拉动距离（px）
+     */
+    final void build(int limit) {
+        if (limit < 1) {
+            limit = 1;
+        }
+        if (limit == mLimit) {
+            return;
+        }
+        float[] table = mTable.length == limit + 1 ? mTable : new float[limit + 1];
+        for (int i = 0; i <= limit; i++) {
+            table[i] = factor(i / (float) limit);
+        }
+        mTable = table;
+        mLimit = limit;
+    }
+
+    /**
+     * @param distance 当前拉出的距离（px，非负）
+     * @return 手指位移到视图位移的系数
+     */
+    public final float getFactor(int distance) {
+        float[] table = mTable;
+        return distance < table.length ? table[distance] : table[table.length - 1];
+    }
+
+    /**
+     * 继续往外拉时计算新的拉出距离，触摸和嵌套滑动共用
+     *
+     * @param moveY       当前拉出的距离，向下为正
+     * @param dataY       手指移动的距离
+     * @param maxDistance 最大拉动距离，0表示不限制
+     * @return 新的拉出距离，已经超过最大距离时返回边界值
+     */
+    public final float apply(float moveY, float dataY, float maxDistance) {
+        if (maxDistance == 0) {
+            return moveY + dataY * getFactor((int) Math.abs(moveY));
+        } else if (Math.abs(moveY) < maxDistance) {
+            //系数按整像素取，接近最大距离时可能略微超出
+            float targetY = moveY + dataY * getFactor((int) Math.abs(moveY));
+            return Math.max(-maxDistance, Math.min(maxDistance, targetY));
+        } else if (moveY > maxDistance) {
+            return maxDistance;
+        } else if (moveY < -maxDistance) {
+            return -maxDistance;
+        }
+        return moveY;
+    }
+
+    /**
+     * 已经拉出时的一次移动，触摸 MOVE 和嵌套滑动共用：越过 0 时停在 0，继续往外拉时按阻尼移动，往回推时跟手
+     *
+     * @param moveY       当前拉出的距离，不为 0
+     * @param dataY       手指移动的距离
+     * @param maxDistance 最大拉动距离，0表示不限制
+     * @return 新的拉出距离，返回 0 表示越过了原点
+     */
+    public final float step(float moveY, int dataY, float maxDistance) {
+        if ((moveY < 0 && moveY + dataY >= 0) || (moveY > 0 && moveY + dataY <= 0)) {
+            return 0;
+        } else if ((moveY > 0 && dataY > 0) || (moveY < 0 && dataY < 0)) {
+            return apply(moveY, dataY, maxDistance);
+        }
+        return moveY + dataY;
+    }
+
+    /**
+     * @param progress 当前距离 / 最大距离，范围 [0, 1]
+     * @return 该位置的阻尼系数，progress 为 1 时应为 0 或接近 0
+     */
+    protected abstract float factor(float progress);
+
+    /**
+     * 线性阻尼，FlingLayout 原有的效果
+     */
+    public static class Linear extends DampingCurve {
+        @Override
+        protected float factor(float progress) {
+            return 0.5f * (1 - progress);
+        }
+    }
+
+    /**
+     * 对数阻尼，开始时跟手，越往后越难拉；按 10^-progress 衰减，平移缩放到 [0, 0.5]，最大距离处为 0
+     */
+    public static class Logarithmic extends DampingCurve {
+        @Override
+        protected float factor(float progress) {
+            return 0.5f * ((float) Math.pow(10, -progress) - 0.1f) / 0.9f;
+        }
+    }
+
+    /**
+     * 仿iOS橡皮筋效果，x' = (1 - 1 / (x * c / d + 1)) * d 对 x' 求导
+     */
+    public static class IOS extends DampingCurve {
+        private static final float C = 0.55f;
+
+        @Override
+        protected float factor(float progress) {
+            float remain = 1 - progress;
+            return C * remain * remain;
+        }
+    }
+
+    /**
+     * 仿小米阻尼效果，前段较轻，接近最大距离时迅速变重
+     */
+    public static class Miui extends DampingCurve {
+        @Override
+        protected float factor(float progress) {
+            return 0.6f * (1 - progress * progress);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.infinite.pullrefresh.layout;
+
+/**
+ * 临界阻尼弹簧，用于松手后的回弹
+ * <p>
+ * 位移 x(t) = (x0 + (v0 + w * x0) * t) * e^(-w * t)，x 为相对目标位置的偏移。
+ * 松手速度越快回弹越快；速度足够大时会在到达目标前穿过目标，此时直接停在目标处，
+ * 剩余速度通过 {@link #getLeftoverVelocity()} 交给内容视图继续滚动
+ */
+class FlingSpring {
+
+    /**
+     * 角频率（rad/s），无初速度时约 300ms 回到原位
+     */
+    private static final float OMEGA = 28f;
+    private static final float STOP_DISTANCE = 0.5f;
+    private static final float STOP_VELOCITY = 20f;
+    private static final int MAX_DURATION = 2000;
+    private static final int FRAME_TIME = 16;
+
+    private float mTarget;
+    private float mStartOffset;
+    private float mStartVelocity;
+    private long mStartTime;
+
+    private float mCurrY;
+    private float mLeftoverVelocity;
+    private boolean mFinished = true;
+
+    /**
+     * @param from     起始位置
+     * @param to       目标位置
+     * @param velocity 起始速度（px/s），背离目标的速度会被忽略
+     * @param now      当前动画时间（ms）
+     */
+    void start(float from, float to, float velocity, long now) {
+        float offset = from - to;
+        if (offset * velocity > 0) {
+            velocity = 0;
+        }
+        mTarget = to;
+        mStartOffset = offset;
+        mStartVelocity = velocity;
+        mStartTime = now;
+        mCurrY = from;
+        mLeftoverVelocity = 0;
+        mFinished = offset == 0;
+        if (mFinished) {
+            mCurrY = to;
+        }
+    }
+
+    /**
+     * 计算当前位置
+     *
+     * @return 动画已经结束时返回 false
+     */
+    boolean computeOffset(long now) {
+        if (mFinished) {
+            return false;
+        }
+        float t = (now - mStartTime) / 1000f;
+        float x0 = mStartOffset;
+        float b = mStartVelocity + OMEGA * x0;
+        float decay = (float) Math.exp(-OMEGA * t);
+        float x = (x0 + b * t) * decay;
+        float v = (b - OMEGA * (x0 + b * t)) * decay;
+        if (x * x0 <= 0) {
+            //穿过目标位置，停在目标处，保留剩余速度
+            mCurrY = mTarget;
+            mLeftoverVelocity = v;
+            mFinished = true;
+        } else if (Math.abs(x) < STOP_DISTANCE && Math.abs(v) < STOP_VELOCITY) {
+            mCurrY = mTarget;
+            mFinished = true;
+        } else {
+            mCurrY = mTarget + x;
+        }
+        return true;
+    }
+
+    /**
+     * 预估回弹时长（ms），仅用于返回给调用方参考
+     */
+    int estimateDuration() {
+        if (mFinished) {
+            return 0;
+        }
+        float x0 = mStartOffset;
+        float b = mStartVelocity + OMEGA * x0;
+        for (int time = FRAME_TIME; time < MAX_DURATION; time += FRAME_TIME) {
+            float t = time / 1000f;
+            float decay = (float) Math.exp(-OMEGA * t);
+            float x = (x0 + b * t) * decay;
+            if (x * x0 <= 0 || Math.abs(x) < STOP_DISTANCE) {
+                return time;
+            }
+        }
+        return MAX_DURATION;
+    }
+
+    void abort() {
+        mFinished = true;
+        mLeftoverVelocity = 0;
+    }
+
+    boolean isFinished() {
+        return mFinished;
+    }
+
+    float getCurrY() {
+        return mCurrY;
+    }
+
+    float getFinalY() {
+        return mTarget;
+    }
+
+    /**
+     * @return 穿过目标时剩余的速度（px/s），正常停止时为 0
+     */
+    float getLeftoverVelocity() {
+        return mLeftoverVelocity;
+    }
+}
@@ -0,0 +1,76 @@
+package com.infinite.pullrefresh.layout;
+
+/**
+ * 头部/脚部的状态切换，BaseHeaderView 和 BaseFooterView 共用
+ * <p>
+ * 头部向下拉（拉出距离为正），脚部向上拉（拉出距离为负），除方向外规则相同：
+ * 拖动中超过 spanHeight 为松开可刷新，否则为下拉中；进入 {@link #ACTIVE} 后锁定，
+ * 直到 {@link #unlock()} 之前不再接受其他状态
+ */
+public class PullStateMachine {
+
+    public final static int NONE = 0;
+    public final static int PULLING = 1;
+    public final static int RELEASE = 2;
+    public final static int ACTIVE = 3;
+    public final static int DONE = 4;
+
+    private final boolean mFooter;
+    private int mState = NONE;
+    private boolean mLocked = false;
+
+    /**
+     * @param footer 是否为脚部（向上拉）
+     */
+    public PullStateMachine(boolean footer) {
+        mFooter = footer;
+    }
+
+    public int getState() {
+        return mState;
+    }
+
+    public boolean isLocked() {
+        return mLocked;
+    }
+
+    /**
+     * @return 状态是否改变，锁定中或状态相同时返回 false
+     */
+    public boolean setState(int state) {
+        if (mLocked || mState == state) {
+            return false;
+        }
+        mState = state;
+        if (state == ACTIVE) {
+            mLocked = true;
+        }
+        return true;
+    }
+
+    /**
+     * 刷新/加载结束，允许再次切换状态
+     */
+    public void unlock() {
+        mLocked = false;
+    }
+
+    /**
+     * @param y          当前拉出的距离
+     * @param spanHeight 触发刷新/加载需要拉出的距离
+     * @return 是否已经拉过了触发位置
+     */
+    public boolean isReached(float y, float spanHeight) {
+        return mFooter ? y <= -spanHeight : y >= spanHeight;
+    }
+
+    /**
+     * @return 松手后回弹的目标位置：拉过触发位置时停在触发位置，否则回到 0
+     */
+    public float getReleaseTarget(float y, float spanHeight) {
+        if (isReached(y, spanHeight)) {
+            return mFooter ? -spanHeight : spanHeight;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.infinite.pullrefresh.recycler;
+
+/**
+ * Created by Administrator on 2016-06-18.
+ * <p>
+ * 每个状态自带是否正在加载、是否还能加载更多，RefreshRecycleView 切换状态时直接读取
+ */
+public enum FooterStatusHandle {
+    TYPE_PULL_LOAD_MORE(false, true),
+    TYPE_LOADING_MORE(true, true),
+    TYPE_ERROR(false, true),
+    TYPE_NO_MORE(false, false);
+
+    private final boolean mLoading;
+    private final boolean mCanLoadMore;
+
+    FooterStatusHandle(boolean loading, boolean canLoadMore) {
+        mLoading = loading;
+        mCanLoadMore = canLoadMore;
+    }
+
+    /**
+     * @return 是否正在加载更多，加载时不能下拉刷新
+     */
+    public boolean isLoading() {
+        return mLoading;
+    }
+
+    /**
+     * @return 进入该状态后是否还能加载更多
+     */
+    public boolean canLoadMore() {
+        return mCanLoadMore;
+    }
+
+    /**
+     * @return 滑到底部时是否可以自动加载下一页，正在加载时不重复加载，出错后需要点击重试
+     */
+    public boolean canAutoLoad() {
+        return this != TYPE_LOADING_MORE && this != TYPE_ERROR;
+    }
+
+    /**
+     * @param canLoadMore 是否还能加载更多
+     * @return footer上实际显示的状态，不能加载更多时总是显示没有更多
+     */
+    public FooterStatusHandle displayed(boolean canLoadMore) {
+        return canLoadMore ? this : TYPE_NO_MORE;
+    }
+}
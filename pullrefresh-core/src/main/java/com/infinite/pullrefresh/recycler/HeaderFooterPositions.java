@@ -0,0 +1,62 @@
+package com.infinite.pullrefresh.recycler;
+
+/**
+ * RefreshAdapter 中 header、数据、footer 的位置映射
+ * <p>
+ * 布局位置依次为：header（可见时占第 0 位）、数据、footer（可见时占最后一位）
+ */
+public class HeaderFooterPositions {
+
+    private boolean mHeaderVisible;
+    private boolean mFooterVisible;
+
+    public void setHeaderVisible(boolean visible) {
+        mHeaderVisible = visible;
+    }
+
+    public void setFooterVisible(boolean visible) {
+        mFooterVisible = visible;
+    }
+
+    public boolean isHeaderVisible() {
+        return mHeaderVisible;
+    }
+
+    public boolean isFooterVisible() {
+        return mFooterVisible;
+    }
+
+    public int getHeaderCount() {
+        return mHeaderVisible ? 1 : 0;
+    }
+
+    /**
+     * @param dataCount 数据条数
+     * @return 包含header和footer的总数
+     */
+    public int getItemCount(int dataCount) {
+        return dataCount + (mHeaderVisible ? 1 : 0) + (mFooterVisible ? 1 : 0);
+    }
+
+    public boolean isHeader(int layoutPosition) {
+        return mHeaderVisible && layoutPosition == 0;
+    }
+
+    public boolean isFooter(int layoutPosition, int dataCount) {
+        return mFooterVisible && layoutPosition == getItemCount(dataCount) - 1;
+    }
+
+    /**
+     * @return 布局位置对应的数据位置
+     */
+    public int getDataPosition(int layoutPosition) {
+        return mHeaderVisible ? layoutPosition - 1 : layoutPosition;
+    }
+
+    /**
+     * @return 数据位置对应的布局位置
+     */
+    public int getLayoutPosition(int dataPosition) {
+        return mHeaderVisible ? dataPosition + 1 : dataPosition;
+    }
+}
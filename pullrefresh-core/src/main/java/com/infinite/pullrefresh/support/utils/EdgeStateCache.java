@@ -0,0 +1,51 @@
+package com.infinite.pullrefresh.support.utils;
+
+/**
+ * 列表是否到达顶部/底部的缓存
+ * <p>
+ * 计算边缘状态通常需要遍历子视图，而拉动中每个 MOVE 事件都会查询。这里只在
+ * {@link #invalidate()}（滚动、布局之后）后的第一次查询时重新计算，其余查询为 O(1)
+ */
+public class EdgeStateCache {
+
+    public interface Detector {
+        boolean computeTop();
+
+        boolean computeBottom();
+    }
+
+    private final Detector mDetector;
+    private boolean mDirty = true;
+    private boolean mTop;
+    private boolean mBottom;
+
+    public EdgeStateCache(Detector detector) {
+        mDetector = detector;
+    }
+
+    /**
+     * 列表滚动或重新布局后调用
+     */
+    public void invalidate() {
+        mDirty = true;
+    }
+
+    public boolean isAtTop() {
+        validate();
+        return mTop;
+    }
+
+    public boolean isAtBottom() {
+        validate();
+        return mBottom;
+    }
+
+    private void validate() {
+        if (mDirty) {
+            //先清除标记，计算中再次失效时下次查询会重新计算
+            mDirty = false;
+            mTop = mDetector.computeTop();
+            mBottom = mDetector.computeBottom();
+        }
+    }
+}
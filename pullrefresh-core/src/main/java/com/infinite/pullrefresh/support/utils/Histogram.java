@@ -0,0 +1,113 @@
+package com.infinite.pullrefresh.support.utils;
+
+/**
+ * 非负整数的聚合直方图，用于帧耗时、回调耗时等指标
+ * <p>
+ * 小于 32 的值精确记录，更大的值按 2 的幂分段、每段 16 个桶，相对误差不超过 1/16；
+ * 桶数固定为 {@link #BUCKET_COUNT}，记录时只做一次数组自增，不分配内存。只在一个线程中使用
+ */
+public class Histogram {
+
+    private static final int LINEAR = 32;
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_BITS = 5;
+    static final int BUCKET_COUNT = LINEAR + (31 - LINEAR_BITS) * SUB_COUNT;
+
+    private final int[] mBuckets = new int[BUCKET_COUNT];
+    private long mCount;
+    private long mSum;
+    private long mMax;
+
+    /**
+     * @param value 负数按 0 记录，超过 Integer.MAX_VALUE 按 Integer.MAX_VALUE 记录
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > Integer.MAX_VALUE) {
+            value = Integer.MAX_VALUE;
+        }
+        mBuckets[indexOf((int) value)]++;
+        mCount++;
+        mSum += value;
+        if (value > mMax) {
+            mMax = value;
+        }
+    }
+
+    /**
+     * 合并另一个直方图的记录
+     */
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets[i] += other.mBuckets[i];
+        }
+        mCount += other.mCount;
+        mSum += other.mSum;
+        if (other.mMax > mMax) {
+            mMax = other.mMax;
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mSum = 0;
+        mMax = 0;
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public double getMean() {
+        return mCount == 0 ? 0 : (double) mSum / mCount;
+    }
+
+    /**
+     * @param percentile 0 ~ 100，例如 50、90、99
+     * @return 不小于该比例记录的最小桶上界，没有记录时返回 0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(mCount * Math.min(100, Math.max(0, percentile)) / 100);
+        if (target < 1) {
+            target = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets[i];
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    static int indexOf(int value) {
+        if (value < LINEAR) {
+            return value;
+        }
+        int exp = 31 - Integer.numberOfLeadingZeros(value);
+        int sub = (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return LINEAR + (exp - LINEAR_BITS) * SUB_COUNT + sub;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exp = (index - LINEAR) / SUB_COUNT + LINEAR_BITS;
+        int sub = (index - LINEAR) % SUB_COUNT;
+        return ((long) (SUB_COUNT + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,172 @@
+package com.infinite.pullrefresh.support.utils;
+
+import java.util.Arrays;
+
+/**
+ * 记录每个item高度的树状数组（Fenwick tree）
+ * <p>
+ * 未测量的item按估计高度计算，位置和偏移之间的互查都是O(log n)；
+ * 插入、删除item时需要整体重建，为O(n)
+ */
+public class ItemHeightTree {
+
+    private static final int UNKNOWN = -1;
+
+    private int[] mHeights = new int[0];
+    private int[] mTree = new int[1];
+    private int mCount;
+    private int mEstimate;
+
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * 重置item数量，所有高度变为未测量
+     */
+    public void setCount(int count) {
+        mCount = count;
+        mHeights = new int[count];
+        Arrays.fill(mHeights, UNKNOWN);
+        rebuild();
+    }
+
+    /**
+     * 改变item数量，保留仍然存在的位置上测量过的高度，新增的位置为未测量。
+     * 用于notifyDataSetChanged之后，可见的item会重新测量
+     */
+    public void resize(int count) {
+        if (count == mCount) {
+            return;
+        }
+        int[] heights = Arrays.copyOf(mHeights, count);
+        if (count > mCount) {
+            Arrays.fill(heights, mCount, count, UNKNOWN);
+        }
+        mHeights = heights;
+        mCount = count;
+        rebuild();
+    }
+
+    /**
+     * 未测量item的估计高度，改变时需要重建
+     */
+    public void setEstimate(int estimate) {
+        if (mEstimate != estimate) {
+            mEstimate = estimate;
+            rebuild();
+        }
+    }
+
+    public int getEstimate() {
+        return mEstimate;
+    }
+
+    public boolean isMeasured(int position) {
+        return position >= 0 && position < mCount && mHeights[position] != UNKNOWN;
+    }
+
+    public void setHeight(int position, int height) {
+        if (position < 0 || position >= mCount) {
+            return;
+        }
+        int old = effective(mHeights[position]);
+        mHeights[position] = height;
+        add(position, height - old);
+    }
+
+    /**
+     * 把一段item标记为未测量，例如item内容改变后
+     */
+    public void invalidate(int positionStart, int itemCount) {
+        int end = Math.min(mCount, positionStart + itemCount);
+        for (int i = Math.max(0, positionStart); i < end; i++) {
+            int old = effective(mHeights[i]);
+            mHeights[i] = UNKNOWN;
+            add(i, mEstimate - old);
+        }
+    }
+
+    public void insert(int positionStart, int itemCount) {
+        if (positionStart < 0 || positionStart > mCount || itemCount <= 0) {
+            return;
+        }
+        int[] heights = new int[mCount + itemCount];
+        System.arraycopy(mHeights, 0, heights, 0, positionStart);
+        Arrays.fill(heights, positionStart, positionStart + itemCount, UNKNOWN);
+        System.arraycopy(mHeights, positionStart, heights, positionStart + itemCount, mCount - positionStart);
+        mHeights = heights;
+        mCount += itemCount;
+        rebuild();
+    }
+
+    public void remove(int positionStart, int itemCount) {
+        if (positionStart < 0 || positionStart >= mCount || itemCount <= 0) {
+            return;
+        }
+        itemCount = Math.min(itemCount, mCount - positionStart);
+        int[] heights = new int[mCount - itemCount];
+        System.arraycopy(mHeights, 0, heights, 0, positionStart);
+        System.arraycopy(mHeights, positionStart + itemCount, heights, positionStart, mCount - positionStart - itemCount);
+        mHeights = heights;
+        mCount -= itemCount;
+        rebuild();
+    }
+
+    /**
+     * @return 第position个item顶部的偏移，即 [0, position) 的高度和
+     */
+    public int getOffset(int position) {
+        int sum = 0;
+        for (int i = Math.min(position, mCount); i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return 偏移offset处的item位置
+     */
+    public int getPosition(int offset) {
+        if (mCount == 0) {
+            return -1;
+        }
+        int position = 0;
+        int remain = offset;
+        for (int step = Integer.highestOneBit(mCount); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= mCount && mTree[next] <= remain) {
+                position = next;
+                remain -= mTree[next];
+            }
+        }
+        return Math.min(position, mCount - 1);
+    }
+
+    private int effective(int height) {
+        return height == UNKNOWN ? mEstimate : height;
+    }
+
+    private void add(int position, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (int i = position + 1; i <= mCount; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    private void rebuild() {
+        int[] tree = mTree.length == mCount + 1 ? mTree : new int[mCount + 1];
+        for (int i = 1; i <= mCount; i++) {
+            tree[i] = effective(mHeights[i - 1]);
+        }
+        for (int i = 1; i <= mCount; i++) {
+            int parent = i + (i & -i);
+            if (parent <= mCount) {
+                tree[parent] += tree[i];
+            }
+        }
+        mTree = tree;
+    }
+}
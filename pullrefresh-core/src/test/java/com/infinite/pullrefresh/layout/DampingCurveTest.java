@@ -0,0 +1,103 @@
+package com.infinite.pullrefresh.layout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DampingCurveTest {
+
+    private static final int LIMIT = 600;
+
+    private static DampingCurve[] curves() {
+        return new DampingCurve[]{
+                new DampingCurve.Linear(),
+                new DampingCurve.Logarithmic(),
+                new DampingCurve.IOS(),
+                new DampingCurve.Miui()
+        };
+    }
+
+    @Test
+    public void factorIsMonotonicAndBounded() {
+        for (DampingCurve curve : curves()) {
+            curve.build(LIMIT);
+            String name = curve.getClass().getSimpleName();
+            float previous = Float.MAX_VALUE;
+            for (int distance = 0; distance <= LIMIT; distance++) {
+                float factor = curve.getFactor(distance);
+                assertTrue(name + " out of range at " + distance, factor >= 0 && factor <= 1);
+                assertTrue(name + " not monotonic at " + distance, factor <= previous);
+                previous = factor;
+            }
+            assertEquals(name + " at max distance", 0, curve.getFactor(LIMIT), 1e-4f);
+            // 超过最大距离时使用最后一项
+            assertEquals(curve.getFactor(LIMIT), curve.getFactor(LIMIT * 2), 0);
+        }
+    }
+
+    @Test
+    public void applyNeverPassesMaxDistance() {
+        for (DampingCurve curve : curves()) {
+            curve.build(LIMIT);
+            float down = 0;
+            float up = 0;
+            for (int i = 0; i < 1000; i++) {
+                float nextDown = curve.apply(down, 20, LIMIT);
+                float nextUp = curve.apply(up, -20, LIMIT);
+                assertTrue(nextDown >= down && nextDown <= LIMIT);
+                assertTrue(nextUp <= up && nextUp >= -LIMIT);
+                down = nextDown;
+                up = nextUp;
+            }
+        }
+    }
+
+    @Test
+    public void applyClampsBeyondMaxDistance() {
+        DampingCurve curve = new DampingCurve.Linear();
+        curve.build(LIMIT);
+        assertEquals(LIMIT, curve.apply(LIMIT + 50, 10, LIMIT), 0);
+        assertEquals(-LIMIT, curve.apply(-LIMIT - 50, -10, LIMIT), 0);
+    }
+
+    @Test
+    public void applyWithoutLimitUsesFactor() {
+        DampingCurve curve = new DampingCurve.Linear();
+        curve.build(LIMIT);
+        assertEquals(10 + 20 * curve.getFactor(10), curve.apply(10, 20, 0), 1e-4f);
+    }
+
+    @Test
+    public void rebuildForNewLimit() {
+        DampingCurve curve = new DampingCurve.Linear();
+        curve.build(100);
+        assertEquals(0, curve.getFactor(100), 1e-6f);
+        curve.build(200);
+        assertEquals(0.25f, curve.getFactor(100), 1e-6f);
+    }
+
+    @Test
+    public void stepStaysWithinMaxDistance() {
+        DampingCurve curve = new DampingCurve.Linear();
+        curve.build(LIMIT);
+        float moveY = 1;
+        for (int i = 0; i < 1000; i++) {
+            float next = curve.step(moveY, 30, LIMIT);
+            assertTrue(next >= moveY);
+            assertTrue(next <= LIMIT);
+            moveY = next;
+        }
+    }
+
+    @Test
+    public void stepCrossingZeroStopsAtZero() {
+        DampingCurve curve = new DampingCurve.Linear();
+        curve.build(LIMIT);
+        assertEquals(0, curve.step(10, -30, LIMIT), 0);
+        assertEquals(0, curve.step(-10, 10, LIMIT), 0);
+        //往回推时跟手，不受阻尼
+        assertEquals(70, curve.step(100, -30, LIMIT), 0);
+        assertEquals(-70, curve.step(-100, 30, LIMIT), 0);
+    }
+}
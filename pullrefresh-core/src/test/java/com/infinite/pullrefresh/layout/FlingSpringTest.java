@@ -0,0 +1,94 @@
+package com.infinite.pullrefresh.layout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlingSpringTest {
+
+    /**
+     * 按16ms一帧推进，直到结束，返回帧数
+     */
+    private static int run(FlingSpring spring, float from, float to, float velocity) {
+        spring.start(from, to, velocity, 0);
+        int frames = 0;
+        for (long now = 16; !spring.isFinished(); now += 16) {
+            assertTrue(spring.computeOffset(now));
+            float y = spring.getCurrY();
+            // 不会越过目标位置
+            if (from > to) {
+                assertTrue("overshoot: " + y, y >= to);
+            } else {
+                assertTrue("overshoot: " + y, y <= to);
+            }
+            frames++;
+            assertTrue("spring never settles", frames < 1000);
+        }
+        return frames;
+    }
+
+    @Test
+    public void settlesAtTarget() {
+        FlingSpring spring = new FlingSpring();
+        run(spring, 300, 0, 0);
+        assertEquals(0, spring.getCurrY(), 0);
+        assertEquals(0, spring.getFinalY(), 0);
+        assertEquals(0, spring.getLeftoverVelocity(), 0);
+        assertFalse(spring.computeOffset(10000));
+    }
+
+    @Test
+    public void settlesAtNonZeroTarget() {
+        FlingSpring spring = new FlingSpring();
+        run(spring, -200, -80, 0);
+        assertEquals(-80, spring.getCurrY(), 0);
+    }
+
+    @Test
+    public void fastReleaseClampsAtTargetAndKeepsVelocity() {
+        FlingSpring spring = new FlingSpring();
+        run(spring, 100, 0, -20000);
+        assertEquals(0, spring.getCurrY(), 0);
+        assertTrue(spring.getLeftoverVelocity() < 0);
+    }
+
+    @Test
+    public void fasterReleaseSettlesSooner() {
+        FlingSpring spring = new FlingSpring();
+        int slow = run(spring, 300, 0, 0);
+        int fast = run(spring, 300, 0, -3000);
+        assertTrue(fast < slow);
+    }
+
+    @Test
+    public void velocityAwayFromTargetIsIgnored() {
+        FlingSpring a = new FlingSpring();
+        FlingSpring b = new FlingSpring();
+        a.start(200, 0, 5000, 0);
+        b.start(200, 0, 0, 0);
+        a.computeOffset(48);
+        b.computeOffset(48);
+        assertEquals(b.getCurrY(), a.getCurrY(), 0);
+    }
+
+    @Test
+    public void startAtTargetFinishesImmediately() {
+        FlingSpring spring = new FlingSpring();
+        spring.start(50, 50, 1000, 0);
+        assertTrue(spring.isFinished());
+        assertEquals(0, spring.estimateDuration());
+        assertEquals(50, spring.getCurrY(), 0);
+    }
+
+    @Test
+    public void abortStops() {
+        FlingSpring spring = new FlingSpring();
+        spring.start(100, 0, 0, 0);
+        spring.computeOffset(16);
+        spring.abort();
+        assertTrue(spring.isFinished());
+        assertFalse(spring.computeOffset(32));
+    }
+}
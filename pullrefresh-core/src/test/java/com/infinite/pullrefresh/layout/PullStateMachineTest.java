@@ -0,0 +1,47 @@
+package com.infinite.pullrefresh.layout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PullStateMachineTest {
+
+    private static final float SPAN = 100;
+
+    @Test
+    public void headerThresholdAndReleaseTarget() {
+        PullStateMachine header = new PullStateMachine(false);
+        assertFalse(header.isReached(99, SPAN));
+        assertTrue(header.isReached(100, SPAN));
+        assertFalse(header.isReached(-150, SPAN));
+        assertEquals(0, header.getReleaseTarget(60, SPAN), 0);
+        assertEquals(SPAN, header.getReleaseTarget(180, SPAN), 0);
+    }
+
+    @Test
+    public void footerThresholdAndReleaseTarget() {
+        PullStateMachine footer = new PullStateMachine(true);
+        assertFalse(footer.isReached(-99, SPAN));
+        assertTrue(footer.isReached(-100, SPAN));
+        assertFalse(footer.isReached(150, SPAN));
+        assertEquals(0, footer.getReleaseTarget(-60, SPAN), 0);
+        assertEquals(-SPAN, footer.getReleaseTarget(-180, SPAN), 0);
+    }
+
+    @Test
+    public void activeLocksUntilUnlock() {
+        PullStateMachine machine = new PullStateMachine(false);
+        assertTrue(machine.setState(PullStateMachine.PULLING));
+        assertFalse(machine.setState(PullStateMachine.PULLING));
+        assertTrue(machine.setState(PullStateMachine.ACTIVE));
+        assertTrue(machine.isLocked());
+        assertFalse(machine.setState(PullStateMachine.NONE));
+        assertEquals(PullStateMachine.ACTIVE, machine.getState());
+        machine.unlock();
+        assertFalse(machine.isLocked());
+        assertTrue(machine.setState(PullStateMachine.DONE));
+        assertEquals(PullStateMachine.DONE, machine.getState());
+    }
+}
@@ -0,0 +1,40 @@
+package com.infinite.pullrefresh.recycler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FooterStatusHandleTest {
+
+    @Test
+    public void onlyLoadingBlocksRefresh() {
+        for (FooterStatusHandle status : FooterStatusHandle.values()) {
+            assertEquals(status == FooterStatusHandle.TYPE_LOADING_MORE, status.isLoading());
+        }
+    }
+
+    @Test
+    public void noMoreStopsLoading() {
+        assertFalse(FooterStatusHandle.TYPE_NO_MORE.canLoadMore());
+        assertTrue(FooterStatusHandle.TYPE_PULL_LOAD_MORE.canLoadMore());
+        assertTrue(FooterStatusHandle.TYPE_ERROR.canLoadMore());
+    }
+
+    @Test
+    public void autoLoadSkipsLoadingAndError() {
+        assertTrue(FooterStatusHandle.TYPE_PULL_LOAD_MORE.canAutoLoad());
+        assertFalse(FooterStatusHandle.TYPE_LOADING_MORE.canAutoLoad());
+        assertFalse(FooterStatusHandle.TYPE_ERROR.canAutoLoad());
+    }
+
+    @Test
+    public void displayedIsNoMoreWhenCannotLoad() {
+        for (FooterStatusHandle status : FooterStatusHandle.values()) {
+            assertSame(status, status.displayed(true));
+            assertSame(FooterStatusHandle.TYPE_NO_MORE, status.displayed(false));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.infinite.pullrefresh.recycler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HeaderFooterPositionsTest {
+
+    private static HeaderFooterPositions positions(boolean header, boolean footer) {
+        HeaderFooterPositions positions = new HeaderFooterPositions();
+        positions.setHeaderVisible(header);
+        positions.setFooterVisible(footer);
+        return positions;
+    }
+
+    @Test
+    public void headerAndFooterVisible() {
+        HeaderFooterPositions positions = positions(true, true);
+        assertEquals(12, positions.getItemCount(10));
+        assertTrue(positions.isHeader(0));
+        assertFalse(positions.isHeader(1));
+        assertTrue(positions.isFooter(11, 10));
+        assertFalse(positions.isFooter(10, 10));
+        assertEquals(0, positions.getDataPosition(1));
+        assertEquals(1, positions.getLayoutPosition(0));
+    }
+
+    @Test
+    public void headerHidden() {
+        HeaderFooterPositions positions = positions(false, true);
+        assertEquals(11, positions.getItemCount(10));
+        assertEquals(0, positions.getHeaderCount());
+        assertFalse(positions.isHeader(0));
+        assertTrue(positions.isFooter(10, 10));
+        assertEquals(0, positions.getDataPosition(0));
+        assertEquals(9, positions.getLayoutPosition(9));
+    }
+
+    @Test
+    public void footerHidden() {
+        HeaderFooterPositions positions = positions(true, false);
+        assertEquals(11, positions.getItemCount(10));
+        assertFalse(positions.isFooter(10, 10));
+        assertEquals(9, positions.getDataPosition(10));
+    }
+
+    @Test
+    public void bothHidden() {
+        HeaderFooterPositions positions = positions(false, false);
+        assertEquals(0, positions.getItemCount(0));
+        assertEquals(10, positions.getItemCount(10));
+        assertFalse(positions.isHeader(0));
+        assertFalse(positions.isFooter(9, 10));
+    }
+
+    @Test
+    public void layoutAndDataPositionsRoundTrip() {
+        for (int mask = 0; mask < 4; mask++) {
+            HeaderFooterPositions positions = positions((mask & 1) != 0, (mask & 2) != 0);
+            for (int data = 0; data < 10; data++) {
+                int layout = positions.getLayoutPosition(data);
+                assertEquals(data, positions.getDataPosition(layout));
+                assertFalse(positions.isHeader(layout));
+                assertFalse(positions.isFooter(layout, 10));
+            }
+        }
+    }
+}
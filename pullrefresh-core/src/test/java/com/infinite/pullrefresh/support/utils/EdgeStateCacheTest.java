@@ -0,0 +1,66 @@
+package com.infinite.pullrefresh.support.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EdgeStateCacheTest {
+
+    private boolean mTop;
+    private boolean mBottom;
+    private int mComputeCount;
+    private EdgeStateCache mCache;
+
+    @Before
+    public void setUp() {
+        mCache = new EdgeStateCache(new EdgeStateCache.Detector() {
+            @Override
+            public boolean computeTop() {
+                mComputeCount++;
+                return mTop;
+            }
+
+            @Override
+            public boolean computeBottom() {
+                return mBottom;
+            }
+        });
+    }
+
+    @Test
+    public void computesOnceUntilInvalidated() {
+        mTop = true;
+        for (int i = 0; i < 100; i++) {
+            assertTrue(mCache.isAtTop());
+            assertFalse(mCache.isAtBottom());
+        }
+        assertEquals(1, mComputeCount);
+    }
+
+    @Test
+    public void invalidateRecomputes() {
+        mTop = true;
+        assertTrue(mCache.isAtTop());
+        mTop = false;
+        mBottom = true;
+        //没有失效时保持旧值
+        assertTrue(mCache.isAtTop());
+        mCache.invalidate();
+        assertFalse(mCache.isAtTop());
+        assertTrue(mCache.isAtBottom());
+        assertEquals(2, mComputeCount);
+    }
+
+    @Test
+    public void invalidateWithoutQueryDoesNotCompute() {
+        for (int i = 0; i < 10; i++) {
+            mCache.invalidate();
+        }
+        assertEquals(0, mComputeCount);
+        mCache.isAtBottom();
+        assertEquals(1, mComputeCount);
+    }
+}
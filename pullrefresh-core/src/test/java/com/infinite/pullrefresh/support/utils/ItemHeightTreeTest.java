@@ -0,0 +1,154 @@
+package com.infinite.pullrefresh.support.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemHeightTreeTest {
+
+    private static final int ESTIMATE = 40;
+    private static final int UNKNOWN = -1;
+
+    /**
+     * 用普通列表逐项累加作为对照
+     */
+    private static void assertMatches(List<Integer> expected, ItemHeightTree tree) {
+        assertEquals(expected.size(), tree.getCount());
+        int offset = 0;
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("offset of " + i, offset, tree.getOffset(i));
+            int height = expected.get(i) == UNKNOWN ? ESTIMATE : expected.get(i);
+            if (height > 0) {
+                assertEquals("position at " + offset, i, tree.getPosition(offset));
+                assertEquals("position at " + (offset + height - 1), i, tree.getPosition(offset + height - 1));
+            }
+            offset += height;
+        }
+        assertEquals(offset, tree.getOffset(expected.size()));
+    }
+
+    private static List<Integer> unknown(int count) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(UNKNOWN);
+        }
+        return list;
+    }
+
+    @Test
+    public void prefixSumsWithEstimate() {
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setEstimate(ESTIMATE);
+        tree.setCount(50);
+        List<Integer> expected = unknown(50);
+        assertMatches(expected, tree);
+        tree.setHeight(3, 100);
+        tree.setHeight(10, 0);
+        tree.setHeight(49, 7);
+        expected.set(3, 100);
+        expected.set(10, 0);
+        expected.set(49, 7);
+        assertMatches(expected, tree);
+        assertTrue(tree.isMeasured(3));
+        assertFalse(tree.isMeasured(4));
+    }
+
+    @Test
+    public void randomUpdatesMatchLinearSums() {
+        Random random = new Random(7);
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setEstimate(ESTIMATE);
+        tree.setCount(200);
+        List<Integer> expected = unknown(200);
+        for (int i = 0; i < 500; i++) {
+            int position = random.nextInt(expected.size());
+            switch (random.nextInt(4)) {
+                case 0:
+                    int height = 1 + random.nextInt(300);
+                    tree.setHeight(position, height);
+                    expected.set(position, height);
+                    break;
+                case 1:
+                    int count = 1 + random.nextInt(5);
+                    tree.insert(position, count);
+                    expected.addAll(position, unknown(count));
+                    break;
+                case 2:
+                    int removed = Math.min(1 + random.nextInt(5), expected.size() - position);
+                    tree.remove(position, removed);
+                    expected.subList(position, position + removed).clear();
+                    break;
+                default:
+                    int changed = Math.min(3, expected.size() - position);
+                    tree.invalidate(position, changed);
+                    for (int j = position; j < position + changed; j++) {
+                        expected.set(j, UNKNOWN);
+                    }
+                    break;
+            }
+            if (expected.isEmpty()) {
+                tree.setCount(20);
+                expected = unknown(20);
+            }
+        }
+        assertMatches(expected, tree);
+    }
+
+    @Test
+    public void resizeKeepsMeasuredHeights() {
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setEstimate(ESTIMATE);
+        tree.setCount(10);
+        for (int i = 0; i < 10; i++) {
+            tree.setHeight(i, 10 + i);
+        }
+        tree.resize(15);
+        List<Integer> expected = unknown(15);
+        for (int i = 0; i < 10; i++) {
+            expected.set(i, 10 + i);
+        }
+        assertMatches(expected, tree);
+
+        tree.resize(6);
+        assertMatches(expected.subList(0, 6), tree);
+        assertTrue(tree.isMeasured(5));
+    }
+
+    @Test
+    public void setCountForgetsHeights() {
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setEstimate(ESTIMATE);
+        tree.setCount(5);
+        tree.setHeight(0, 99);
+        tree.setCount(5);
+        assertFalse(tree.isMeasured(0));
+        assertMatches(unknown(5), tree);
+    }
+
+    @Test
+    public void estimateChangeAppliesToUnmeasuredOnly() {
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setCount(4);
+        tree.setHeight(1, 30);
+        tree.setEstimate(ESTIMATE);
+        List<Integer> expected = unknown(4);
+        expected.set(1, 30);
+        assertMatches(expected, tree);
+    }
+
+    @Test
+    public void emptyTree() {
+        ItemHeightTree tree = new ItemHeightTree();
+        tree.setCount(0);
+        assertEquals(-1, tree.getPosition(0));
+        assertEquals(0, tree.getOffset(5));
+        tree.resize(0);
+        assertEquals(0, tree.getCount());
+    }
+}
@@ -1,26 +1,31 @@
 package com.infinite.pullrefresh.extras;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
-import android.view.LayoutInflater;
-import android.view.View;
 import android.view.animation.OvershootInterpolator;
-import android.widget.TextView;
 
 import com.infinite.pullrefresh.R;
 import com.infinite.pullrefresh.layout.BaseFooterView;
 import com.infinite.pullrefresh.layout.FlingLayout;
-import com.infinite.pullrefresh.support.utils.AnimUtil;
-import com.nineoldandroids.view.ViewHelper;
 
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.ARROW_ALPHA;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.ARROW_ROTATION;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.PROGRESS_ALPHA;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.STATE_ALPHA;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.STATE_SCALE;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.TEXT_ALPHA;
 
 
+/**
+ * 默认底部，没有子视图，阴影、箭头、文字和进度都由 {@link PullIndicatorDrawer} 直接绘制
+ */
 public class NormalFooterView extends BaseFooterView {
 
-    TextView textView;
-    View tagImg;
-    View progress;
-    View stateImg;
+    PullIndicatorDrawer drawer;
+    private final OvershootInterpolator overshootInterpolator = new OvershootInterpolator();
 
 
     public NormalFooterView(Context context) {
@@ -37,46 +42,66 @@ public class NormalFooterView extends BaseFooterView {
     }
 
     private void init() {
-        LayoutInflater.from(getContext()).inflate(R.layout.view_footer_normal, this, true);
-        textView = (TextView) findViewById(R.id.text);
-        tagImg = findViewById(R.id.tag);
-        progress = findViewById(R.id.progress);
-        stateImg = findViewById(R.id.state);
+        setWillNotDraw(false);
+        drawer = new PullIndicatorDrawer(this, R.mipmap.ic_pull_up, R.mipmap.id_load, R.mipmap.id_load_clone);
+        drawer.setShadow(ContextCompat.getDrawable(getContext(), R.drawable.bottom_shadow), 15);
+        drawer.setTextColor(Color.WHITE);
+        drawer.setText("加载");
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(Math.max(drawer.getContentHeight(), getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        drawer.draw(canvas, getWidth(), getHeight());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        drawer.cancelAnimations();
     }
 
 
     @Override
     protected void onStateChange(int state) {
-        stateImg.setVisibility(View.INVISIBLE);
-        progress.setVisibility(View.INVISIBLE);
-        textView.setVisibility(View.VISIBLE);
-        tagImg.setVisibility(View.VISIBLE);
-        ViewHelper.setAlpha(textView, 1);
-        ViewHelper.setAlpha(tagImg, 1);
+        drawer.setStateVisible(false);
+        drawer.setProgressVisible(false);
+        drawer.setTextVisible(true);
+        drawer.setArrowVisible(true);
+        drawer.setValue(TEXT_ALPHA, 1);
+        drawer.setValue(ARROW_ALPHA, 1);
         switch (state) {
             case NONE:
                 break;
             case PULLING:
-                textView.setText("上拉加载更多");
-                AnimUtil.startRotation(tagImg, 0);
+                drawer.setText("上拉加载更多");
+                drawer.animate(ARROW_ROTATION, 0);
                 break;
             case LOOSENT_O_LOAD:
-                textView.setText("松开加载");
-                AnimUtil.startRotation(tagImg, 180);
+                drawer.setText("松开加载");
+                drawer.animate(ARROW_ROTATION, 180);
                 break;
             case LOADING:
-                textView.setText("正在加载");
-                AnimUtil.startShow(progress, 0.1f, 400, 200);
-                AnimUtil.startHide(textView);
-                AnimUtil.startHide(tagImg);
+                drawer.setText("正在加载");
+                drawer.setProgressVisible(true);
+                drawer.animate(PROGRESS_ALPHA, 0.1f, 1f, 400, 200);
+                drawer.animate(TEXT_ALPHA, 0);
+                drawer.animate(ARROW_ALPHA, 0);
                 break;
             case LOAD_CLONE:
-                AnimUtil.startScale(stateImg, 0.3f, 1f, 500, 50, new OvershootInterpolator());
-                AnimUtil.startShow(stateImg, 0.1f, 300, 150);
-                AnimUtil.startHide(progress, 150, 0);
-                textView.setVisibility(View.INVISIBLE);
-                tagImg.setVisibility(View.INVISIBLE);
-                textView.setText("加载完成");
+                drawer.setStateVisible(true);
+                drawer.setProgressVisible(true);
+                drawer.animate(STATE_SCALE, 0.3f, 1f, 500, 50, overshootInterpolator);
+                drawer.animate(STATE_ALPHA, 0.1f, 1f, 300, 150);
+                drawer.animate(PROGRESS_ALPHA, drawer.getValue(PROGRESS_ALPHA), 0f, 150, 0);
+                drawer.setTextVisible(false);
+                drawer.setArrowVisible(false);
+                drawer.setText("加载完成");
                 break;
 
         }
@@ -1,23 +1,28 @@
 package com.infinite.pullrefresh.extras;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.widget.TextView;
 
 import com.infinite.pullrefresh.R;
 import com.infinite.pullrefresh.layout.BaseHeaderView;
 import com.infinite.pullrefresh.layout.FlingLayout;
-import com.infinite.pullrefresh.support.utils.AnimUtil;
-import com.nineoldandroids.view.ViewHelper;
 
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.ARROW_ALPHA;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.ARROW_ROTATION;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.PROGRESS_ALPHA;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.PROGRESS_TRANSLATION_Y;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.STATE_TRANSLATION_Y;
+import static com.infinite.pullrefresh.extras.PullIndicatorDrawer.TEXT_ALPHA;
 
+
+/**
+ * 默认头部，没有子视图，箭头、文字和进度都由 {@link PullIndicatorDrawer} 直接绘制
+ */
 public class NormalHeaderView extends BaseHeaderView {
-    private TextView textView;
-    private View tagImg;
-    private View progress;
-    private View stateImg;
+    private PullIndicatorDrawer drawer;
 
 
     public NormalHeaderView(Context context) {
@@ -34,51 +39,66 @@ public class NormalHeaderView extends BaseHeaderView {
     }
 
     private void init() {
-        LayoutInflater.from(getContext()).inflate(R.layout.view_header_normal, this, true);
-        textView = (TextView) findViewById(R.id.text);
-        tagImg = findViewById(R.id.tag);
-        progress = findViewById(R.id.progress);
-        stateImg = findViewById(R.id.state);
+        setWillNotDraw(false);
+        setBackgroundColor(ContextCompat.getColor(getContext(), R.color.material_grey_300));
+        drawer = new PullIndicatorDrawer(this, R.mipmap.ic_pull_down, R.mipmap.id_load, R.mipmap.id_load_clone);
+        drawer.setTextColor(Color.BLACK);
+        drawer.setText(getResources().getString(R.string.stringLoading));
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(Math.max(drawer.getContentHeight(), getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        drawer.draw(canvas, getWidth(), getHeight());
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        drawer.cancelAnimations();
     }
 
     @Override
     protected void onStateChange(int state) {
-        if (textView == null || tagImg == null || progress == null || stateImg == null) {
-            return;
-        }
-        stateImg.setVisibility(View.INVISIBLE);
-        progress.setVisibility(View.INVISIBLE);
-        textView.setVisibility(View.VISIBLE);
-        tagImg.setVisibility(View.VISIBLE);
-        ViewHelper.setAlpha(textView, 1);
-        ViewHelper.setAlpha(tagImg, 1);
-        ViewHelper.setTranslationY(stateImg, 0);
-        ViewHelper.setTranslationY(progress, 0);
+        drawer.setStateVisible(false);
+        drawer.setProgressVisible(false);
+        drawer.setTextVisible(true);
+        drawer.setArrowVisible(true);
+        drawer.setValue(TEXT_ALPHA, 1);
+        drawer.setValue(ARROW_ALPHA, 1);
+        drawer.setValue(STATE_TRANSLATION_Y, 0);
+        drawer.setValue(PROGRESS_TRANSLATION_Y, 0);
         switch (state) {
             case NONE:
                 break;
             case PULLING:
-                textView.setText(R.string.stringPullLoadMore);
-                AnimUtil.startRotation(tagImg, 0);
+                drawer.setText(getResources().getString(R.string.stringPullLoadMore));
+                drawer.animate(ARROW_ROTATION, 0);
                 break;
             case LOOSENT_O_REFRESH:
-                textView.setText(R.string.stringReleaseLoadMore);
-                AnimUtil.startRotation(tagImg, 180);
+                drawer.setText(getResources().getString(R.string.stringReleaseLoadMore));
+                drawer.animate(ARROW_ROTATION, 180);
                 break;
             case REFRESHING:
-                textView.setText(R.string.stringLoading);
-                AnimUtil.startShow(progress, 0.1f, 400, 200);
-                AnimUtil.startHide(textView);
-                AnimUtil.startHide(tagImg);
+                drawer.setText(getResources().getString(R.string.stringLoading));
+                drawer.setProgressVisible(true);
+                drawer.animate(PROGRESS_ALPHA, 0.1f, 1f, 400, 200);
+                drawer.animate(TEXT_ALPHA, 0);
+                drawer.animate(ARROW_ALPHA, 0);
                 break;
             case REFRESH_CLONE:
-                AnimUtil.startFromY(stateImg, -2 * stateImg.getHeight());
-                AnimUtil.startToY(progress, 2 * progress.getHeight());
-                stateImg.setVisibility(View.VISIBLE);
-                progress.setVisibility(View.VISIBLE);
-                textView.setVisibility(View.INVISIBLE);
-                tagImg.setVisibility(View.INVISIBLE);
-                textView.setText(R.string.stringLoaded);
+                drawer.animate(STATE_TRANSLATION_Y, -2 * drawer.getStateHeight(), 0);
+                drawer.animate(PROGRESS_TRANSLATION_Y, 0, 2 * drawer.getProgressHeight());
+                drawer.setStateVisible(true);
+                drawer.setProgressVisible(true);
+                drawer.setTextVisible(false);
+                drawer.setArrowVisible(false);
+                drawer.setText(getResources().getString(R.string.stringLoaded));
                 break;
 
         }
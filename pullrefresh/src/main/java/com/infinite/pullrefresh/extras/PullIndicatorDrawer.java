@@ -0,0 +1,294 @@
+package com.infinite.pullrefresh.extras;
+
+import android.animation.ValueAnimator;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.support.v4.view.ViewCompat;
+import android.text.TextPaint;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
+
+/**
+ * 在宿主View的Canvas上直接绘制箭头、文字、进度圈和完成图标，代替原来的
+ * RelativeLayout + ImageView + TextView + ProgressBar 布局。
+ * <p>
+ * 各部分只有位置、透明度、旋转等绘制属性，动画改这些属性后只重绘宿主，不会触发measure/layout。
+ * 位置与原布局一致：箭头水平居中距顶部10dp，文字在箭头下方10dp，进度圈和完成图标在中心
+ */
+class PullIndicatorDrawer {
+
+    static final int ARROW_ROTATION = 0;
+    static final int ARROW_ALPHA = 1;
+    static final int TEXT_ALPHA = 2;
+    static final int PROGRESS_ALPHA = 3;
+    static final int PROGRESS_TRANSLATION_Y = 4;
+    static final int STATE_ALPHA = 5;
+    static final int STATE_SCALE = 6;
+    static final int STATE_TRANSLATION_Y = 7;
+    private static final int PROPERTY_COUNT = 8;
+
+    private static final int PROGRESS_DURATION = 600;  //进度圈转一圈的时间，与原WidgetProgressBar一致
+    private static final Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * 解码后的图标，按屏幕密度、资源id缓存，所有头部、脚部共用，不能修改。只在主线程访问
+     */
+    private static final SparseArray<SparseArray<Bitmap>> sBitmaps = new SparseArray<>();
+
+    private final View mView;
+    private final Bitmap mArrow;
+    private final Bitmap mProgress;
+    private final Bitmap mState;
+    private final Paint mBitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final TextPaint mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final int mMargin;
+    private final int mIconSize;
+    private Drawable mShadow;
+    private int mShadowHeight;
+
+    private CharSequence mText = "";
+    private final int mTextAscent;
+    private final int mTextHeight;
+
+    private boolean mArrowVisible = true;
+    private boolean mTextVisible = true;
+    private boolean mProgressVisible;
+    private boolean mStateVisible;
+    private final float[] mValues = new float[PROPERTY_COUNT];
+    private final float[] mFrom = new float[PROPERTY_COUNT];
+    private final float[] mTo = new float[PROPERTY_COUNT];
+    private final ValueAnimator[] mAnimators = new ValueAnimator[PROPERTY_COUNT];
+
+    PullIndicatorDrawer(View view, int arrowRes, int progressRes, int stateRes) {
+        mView = view;
+        Resources res = view.getResources();
+        mArrow = getBitmap(res, arrowRes);
+        mProgress = getBitmap(res, progressRes);
+        mState = getBitmap(res, stateRes);
+        mMargin = dp(res, 10);
+        mIconSize = dp(res, 32);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, res.getDisplayMetrics()));
+        Paint.FontMetricsInt fm = mTextPaint.getFontMetricsInt();
+        mTextAscent = fm.ascent;
+        mTextHeight = fm.descent - fm.ascent;
+        mValues[ARROW_ALPHA] = 1;
+        mValues[TEXT_ALPHA] = 1;
+        mValues[PROGRESS_ALPHA] = 1;
+        mValues[STATE_ALPHA] = 1;
+        mValues[STATE_SCALE] = 1;
+    }
+
+    private static Bitmap getBitmap(Resources res, int resId) {
+        int density = res.getDisplayMetrics().densityDpi;
+        SparseArray<Bitmap> bitmaps = sBitmaps.get(density);
+        if (bitmaps == null) {
+            bitmaps = new SparseArray<>();
+            sBitmaps.put(density, bitmaps);
+        }
+        Bitmap bitmap = bitmaps.get(resId);
+        if (bitmap == null) {
+            bitmap = BitmapFactory.decodeResource(res, resId);
+            bitmaps.put(resId, bitmap);
+        }
+        return bitmap;
+    }
+
+    private static int dp(Resources res, float value) {
+        return (int) (TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, res.getDisplayMetrics()) + 0.5f);
+    }
+
+    void setTextColor(int color) {
+        mTextPaint.setColor(color);
+    }
+
+    /**
+     * 顶部阴影，高度为dp
+     */
+    void setShadow(Drawable shadow, float height) {
+        mShadow = shadow;
+        mShadowHeight = dp(mView.getResources(), height);
+    }
+
+    void setText(CharSequence text) {
+        mText = text == null ? "" : text;
+        mView.invalidate();
+    }
+
+    void setArrowVisible(boolean visible) {
+        mArrowVisible = visible;
+        mView.invalidate();
+    }
+
+    void setTextVisible(boolean visible) {
+        mTextVisible = visible;
+        mView.invalidate();
+    }
+
+    void setProgressVisible(boolean visible) {
+        mProgressVisible = visible;
+        mView.invalidate();
+    }
+
+    void setStateVisible(boolean visible) {
+        mStateVisible = visible;
+        mView.invalidate();
+    }
+
+    int getProgressHeight() {
+        return mIconSize;
+    }
+
+    int getStateHeight() {
+        return mIconSize;
+    }
+
+    float getValue(int property) {
+        return mValues[property];
+    }
+
+    /**
+     * 直接设置属性值，同时取消该属性上正在进行的动画
+     */
+    void setValue(int property, float value) {
+        ValueAnimator animator = mAnimators[property];
+        if (animator != null) {
+            animator.cancel();
+        }
+        mValues[property] = value;
+        mView.invalidate();
+    }
+
+    void animate(int property, float to) {
+        animate(property, mValues[property], to, 300, 0, DEFAULT_INTERPOLATOR);
+    }
+
+    void animate(int property, float from, float to) {
+        animate(property, from, to, 300, 0, DEFAULT_INTERPOLATOR);
+    }
+
+    void animate(int property, float from, float to, long duration, long startDelay) {
+        animate(property, from, to, duration, startDelay, DEFAULT_INTERPOLATOR);
+    }
+
+    /**
+     * 每个属性复用一个从0到1的ValueAnimator，按动画进度在from和to之间插值，每帧不装箱；
+     * 新的动画会取消同一属性上的旧动画
+     */
+    void animate(int property, float from, float to, long duration, long startDelay, Interpolator interpolator) {
+        ValueAnimator animator = mAnimators[property];
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0, 1);
+            animator.addUpdateListener(new ValueUpdater(property));
+            mAnimators[property] = animator;
+        } else {
+            animator.cancel();
+        }
+        mFrom[property] = from;
+        mTo[property] = to;
+        mValues[property] = from;
+        animator.setDuration(duration);
+        animator.setStartDelay(startDelay);
+        animator.setInterpolator(interpolator);
+        animator.start();
+    }
+
+    void cancelAnimations() {
+        for (ValueAnimator animator : mAnimators) {
+            if (animator != null) {
+                animator.cancel();
+            }
+        }
+    }
+
+    /**
+     * @return 内容需要的高度：10dp + 箭头 + 10dp + 文字 + 10dp
+     */
+    int getContentHeight() {
+        return mMargin + mArrow.getHeight() + mMargin + mTextHeight + mMargin;
+    }
+
+    void draw(Canvas canvas, int width, int height) {
+        if (mShadow != null) {
+            mShadow.setBounds(0, 0, width, mShadowHeight);
+            mShadow.draw(canvas);
+        }
+        float centerX = width / 2f;
+        float centerY = height / 2f;
+        float[] values = mValues;
+
+        if (mArrowVisible && values[ARROW_ALPHA] > 0) {
+            float top = mMargin;
+            canvas.save();
+            canvas.rotate(values[ARROW_ROTATION], centerX, top + mArrow.getHeight() / 2f);
+            drawBitmap(canvas, mArrow, centerX - mArrow.getWidth() / 2f, top, values[ARROW_ALPHA]);
+            canvas.restore();
+        }
+
+        if (mTextVisible && values[TEXT_ALPHA] > 0 && mText.length() > 0) {
+            float baseline = mMargin + mArrow.getHeight() + mMargin - mTextAscent;
+            int alpha = mTextPaint.getAlpha();
+            mTextPaint.setAlpha((int) (alpha * clamp(values[TEXT_ALPHA])));
+            canvas.drawText(mText, 0, mText.length(), centerX, baseline, mTextPaint);
+            mTextPaint.setAlpha(alpha);
+        }
+
+        if (mProgressVisible && values[PROGRESS_ALPHA] > 0) {
+            float degrees = AnimationUtils.currentAnimationTimeMillis() % PROGRESS_DURATION * 360f / PROGRESS_DURATION;
+            float cy = centerY + values[PROGRESS_TRANSLATION_Y];
+            canvas.save();
+            canvas.rotate(degrees, centerX, cy);
+            drawIcon(canvas, mProgress, centerX, cy, 1, values[PROGRESS_ALPHA]);
+            canvas.restore();
+            //不可见或者已经移出窗口时停止转动，重新显示时会重绘
+            if (mView.isShown() && mView.getWindowToken() != null) {
+                ViewCompat.postInvalidateOnAnimation(mView);
+            }
+        }
+
+        if (mStateVisible && values[STATE_ALPHA] > 0) {
+            drawIcon(canvas, mState, centerX, centerY + values[STATE_TRANSLATION_Y], values[STATE_SCALE], values[STATE_ALPHA]);
+        }
+    }
+
+    private void drawIcon(Canvas canvas, Bitmap bitmap, float cx, float cy, float scale, float alpha) {
+        float half = mIconSize * scale / 2f;
+        canvas.save();
+        canvas.translate(cx - half, cy - half);
+        canvas.scale(mIconSize * scale / bitmap.getWidth(), mIconSize * scale / bitmap.getHeight());
+        drawBitmap(canvas, bitmap, 0, 0, alpha);
+        canvas.restore();
+    }
+
+    private void drawBitmap(Canvas canvas, Bitmap bitmap, float left, float top, float alpha) {
+        mBitmapPaint.setAlpha((int) (255 * clamp(alpha)));
+        canvas.drawBitmap(bitmap, left, top, mBitmapPaint);
+    }
+
+    private static float clamp(float alpha) {
+        return alpha < 0 ? 0 : alpha > 1 ? 1 : alpha;
+    }
+
+    private class ValueUpdater implements ValueAnimator.AnimatorUpdateListener {
+        private final int mIndex;
+
+        ValueUpdater(int index) {
+            mIndex = index;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            float from = mFrom[mIndex];
+            mValues[mIndex] = from + (mTo[mIndex] - from) * animation.getAnimatedFraction();
+            mView.invalidate();
+        }
+    }
+}
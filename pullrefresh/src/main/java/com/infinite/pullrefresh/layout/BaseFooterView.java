@@ -22,27 +22,26 @@
 package com.infinite.pullrefresh.layout;
 
 import android.content.Context;
-import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.widget.RelativeLayout;
 
 import com.infinite.pullrefresh.support.impl.Loadable;
+import com.infinite.pullrefresh.support.utils.PullLog;
+import com.infinite.pullrefresh.support.utils.TraceSections;
 
 
 public abstract class BaseFooterView extends RelativeLayout implements Loadable {
 
-    public final static int NONE = 0;
-    public final static int PULLING = 1;
-    public final static int LOOSENT_O_LOAD = 2;
-    public final static int LOADING = 3;
-    public final static int LOAD_CLONE = 4;
-    private int stateType = NONE;
+    public final static int NONE = PullStateMachine.NONE;
+    public final static int PULLING = PullStateMachine.PULLING;
+    public final static int LOOSENT_O_LOAD = PullStateMachine.RELEASE;
+    public final static int LOADING = PullStateMachine.ACTIVE;
+    public final static int LOAD_CLONE = PullStateMachine.DONE;
+    private final PullStateMachine stateMachine = new PullStateMachine(true);
+    TraceSections mTrace;  // 由 PullRefreshLayout 设置，为 null 时不记录
 
     private PullRefreshLayout pullRefreshLayout;
 
-    private boolean isLockState = false;
-
     private OnLoadListener onLoadListener;
 
     private int scrollState = FlingLayout.SCROLL_STATE_IDLE;
@@ -66,7 +65,7 @@ public abstract class BaseFooterView extends RelativeLayout implements Loadable
     }
 
     protected boolean isLockState() {
-        return isLockState;
+        return stateMachine.isLocked();
     }
 
     public int getLayoutType() {
@@ -74,23 +73,33 @@ public abstract class BaseFooterView extends RelativeLayout implements Loadable
     }
 
     private void setState(int state) {
-        if (isLockState || stateType == state) {
+        if (!stateMachine.setState(state)) {
             return;
         }
-        Log.i("BaseFooterView", "" + state);
-        this.stateType = state;
+        if (PullLog.DEBUG) {
+            PullLog.i("BaseFooterView", "state:", state);
+        }
         if (state == LOADING) {
-            isLockState = true;
             if (onLoadListener != null) {
                 onLoadListener.onLoad(this);
             }
         }
-        onStateChange(state);
+        TraceSections trace = mTrace;
+        if (trace == null) {
+            onStateChange(state);
+            return;
+        }
+        trace.begin(FlingLayout.TRACE_FOOTER_STATE);
+        try {
+            onStateChange(state);
+        } finally {
+            trace.end();
+        }
     }
 
 
     public int getType() {
-        return stateType;
+        return stateMachine.getState();
     }
 
 
@@ -123,7 +132,7 @@ public abstract class BaseFooterView extends RelativeLayout implements Loadable
 
     @Override
     public void stopLoad() {
-        isLockState = false;
+        stateMachine.unlock();
         setState(LOAD_CLONE);
         postDelayed(new Runnable() {
             @Override
@@ -139,21 +148,17 @@ public abstract class BaseFooterView extends RelativeLayout implements Loadable
         boolean intercept = false;
         int footerLayoutType = getLayoutType();
         if (footerLayoutType == FlingLayout.LAYOUT_SCROLLER) {
-            ViewCompat.setTranslationY(this, -getMeasuredHeight());
+            setTranslationY(-getMeasuredHeight());
         } else if (footerLayoutType == FlingLayout.LAYOUT_DRAWER) {
-            ViewCompat.setTranslationY(this, y);
-            ViewCompat.setTranslationY(pullRefreshLayout.getPullView(), 0);
+            setTranslationY(y);
+            pullRefreshLayout.getPullView().setTranslationY(0);
             intercept = true;
         } else {
-            ViewCompat.setTranslationY(this, y);
+            setTranslationY(y);
         }
         float footerSpanHeight = getSpanHeight();
         if (scrollState == FlingLayout.SCROLL_STATE_TOUCH_SCROLL) {
-            if (y <= -footerSpanHeight) {
-                setState(LOOSENT_O_LOAD);
-            } else {
-                setState(PULLING);
-            }
+            setState(stateMachine.isReached(y, footerSpanHeight) ? LOOSENT_O_LOAD : PULLING);
         }
         return intercept;
     }
@@ -163,17 +168,17 @@ public abstract class BaseFooterView extends RelativeLayout implements Loadable
         scrollState = state;
     }
 
+    /**
+     * 松手后按释放速度回弹到触发位置或0，是否触发由 {@link #getType()} 得到
+     *
+     * @return 总是返回 true，回弹已经开始，FlingLayout 不需要再回弹
+     */
     @Override
     public boolean onStartFling(float nowY) {
         float footerSpanHeight = getSpanHeight();
-        if (nowY <= -footerSpanHeight) {
-            pullRefreshLayout.startMoveTo(nowY, -footerSpanHeight);
-            setState(LOADING);
-            return true;
-        }
-        pullRefreshLayout.startMoveTo(nowY, 0);
-        setState(NONE);
-        return false;
+        pullRefreshLayout.startMoveTo(nowY, stateMachine.getReleaseTarget(nowY, footerSpanHeight));
+        setState(stateMachine.isReached(nowY, footerSpanHeight) ? LOADING : NONE);
+        return true;
     }
 
     public abstract float getSpanHeight();
@@ -22,27 +22,26 @@
 package com.infinite.pullrefresh.layout;
 
 import android.content.Context;
-import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.widget.RelativeLayout;
 
 import com.infinite.pullrefresh.support.impl.Refreshable;
+import com.infinite.pullrefresh.support.utils.PullLog;
+import com.infinite.pullrefresh.support.utils.TraceSections;
 
 
 public abstract class BaseHeaderView extends RelativeLayout implements Refreshable {
 
-    public final static int NONE = 0;
-    public final static int PULLING = 1;
-    public final static int LOOSENT_O_REFRESH = 2;
-    public final static int REFRESHING = 3;
-    public final static int REFRESH_CLONE = 4;
-    private int stateType = NONE;
+    public final static int NONE = PullStateMachine.NONE;
+    public final static int PULLING = PullStateMachine.PULLING;
+    public final static int LOOSENT_O_REFRESH = PullStateMachine.RELEASE;
+    public final static int REFRESHING = PullStateMachine.ACTIVE;
+    public final static int REFRESH_CLONE = PullStateMachine.DONE;
+    private final PullStateMachine stateMachine = new PullStateMachine(false);
+    TraceSections mTrace;  // 由 PullRefreshLayout 设置，为 null 时不记录
 
     private PullRefreshLayout pullRefreshLayout;
 
-    private boolean isLockState = false;
-
     OnRefreshListener onRefreshListener;
 
     private int scrollState = FlingLayout.SCROLL_STATE_IDLE;
@@ -67,7 +66,7 @@ public abstract class BaseHeaderView extends RelativeLayout implements Refreshab
     }
 
     protected boolean isLockState() {
-        return isLockState;
+        return stateMachine.isLocked();
     }
 
     public int getLayoutType() {
@@ -76,22 +75,32 @@ public abstract class BaseHeaderView extends RelativeLayout implements Refreshab
 
 
     private void setState(int state) {
-        if (isLockState || stateType == state) {
+        if (!stateMachine.setState(state)) {
             return;
         }
-        Log.i("BaseHeaderView", "" + state);
-        this.stateType = state;
+        if (PullLog.DEBUG) {
+            PullLog.i("BaseHeaderView", "state:", state);
+        }
         if (state == REFRESHING) {
-            isLockState = true;
             if (onRefreshListener != null) {
                 onRefreshListener.onRefresh(this);
             }
         }
-        onStateChange(state);
+        TraceSections trace = mTrace;
+        if (trace == null) {
+            onStateChange(state);
+            return;
+        }
+        trace.begin(FlingLayout.TRACE_HEADER_STATE);
+        try {
+            onStateChange(state);
+        } finally {
+            trace.end();
+        }
     }
 
     public int getType() {
-        return stateType;
+        return stateMachine.getState();
     }
 
 
@@ -124,7 +133,7 @@ public abstract class BaseHeaderView extends RelativeLayout implements Refreshab
 
     @Override
     public void stopRefresh() {
-        isLockState = false;
+        stateMachine.unlock();
         setState(REFRESH_CLONE);
         postDelayed(new Runnable() {
             @Override
@@ -139,21 +148,17 @@ public abstract class BaseHeaderView extends RelativeLayout implements Refreshab
         boolean intercept = false;
         int layoutType = getLayoutType();
         if (layoutType == FlingLayout.LAYOUT_SCROLLER) {
-            ViewCompat.setTranslationY(this, getMeasuredHeight());
+            setTranslationY(getMeasuredHeight());
         } else if (layoutType == FlingLayout.LAYOUT_DRAWER) {
-            ViewCompat.setTranslationY(this, y);
-            ViewCompat.setTranslationY(pullRefreshLayout.getPullView(), 0);
+            setTranslationY(y);
+            pullRefreshLayout.getPullView().setTranslationY(0);
             intercept = true;
         } else {
-            ViewCompat.setTranslationY(this, y);
+            setTranslationY(y);
         }
         float headerSpanHeight = getSpanHeight();
         if (scrollState == FlingLayout.SCROLL_STATE_TOUCH_SCROLL) {
-            if (y >= headerSpanHeight) {
-                setState(LOOSENT_O_REFRESH);
-            } else {
-                setState(PULLING);
-            }
+            setState(stateMachine.isReached(y, headerSpanHeight) ? LOOSENT_O_REFRESH : PULLING);
         }
         return intercept;
     }
@@ -163,17 +168,17 @@ public abstract class BaseHeaderView extends RelativeLayout implements Refreshab
         scrollState = state;
     }
 
+    /**
+     * 松手后按释放速度回弹到触发位置或0，是否触发由 {@link #getType()} 得到
+     *
+     * @return 总是返回 true，回弹已经开始，FlingLayout 不需要再回弹
+     */
     @Override
     public boolean onStartFling(float nowY) {
         float headerSpanHeight = getSpanHeight();
-        if (nowY >= headerSpanHeight) {
-            pullRefreshLayout.startMoveTo(nowY, headerSpanHeight);
-            setState(REFRESHING);
-            return true;
-        }
-        pullRefreshLayout.startMoveTo(nowY, 0);
-        setState(NONE);
-        return false;
+        pullRefreshLayout.startMoveTo(nowY, stateMachine.getReleaseTarget(nowY, headerSpanHeight));
+        setState(stateMachine.isReached(nowY, headerSpanHeight) ? REFRESHING : NONE);
+        return true;
     }
 
     public abstract float getSpanHeight();
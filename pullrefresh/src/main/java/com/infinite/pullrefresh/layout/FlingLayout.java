@@ -22,24 +22,28 @@
 package com.infinite.pullrefresh.layout;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.support.v4.view.NestedScrollingChild;
 import android.support.v4.view.NestedScrollingChildHelper;
 import android.support.v4.view.NestedScrollingParent;
 import android.support.v4.view.NestedScrollingParentHelper;
 import android.support.v4.view.ViewCompat;
+import android.support.v4.widget.NestedScrollView;
+import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AnimationUtils;
 import android.widget.FrameLayout;
-import android.widget.Scroller;
+import android.widget.ScrollView;
 
 import com.infinite.pullrefresh.support.impl.Pullable;
 import com.infinite.pullrefresh.support.utils.CanPullUtil;
-import com.nineoldandroids.view.ViewHelper;
+import com.infinite.pullrefresh.support.utils.PullLog;
+import com.infinite.pullrefresh.support.utils.TraceSections;
 
 public class FlingLayout extends FrameLayout implements NestedScrollingChild, NestedScrollingParent {
 
@@ -58,13 +62,15 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     protected Pullable pullable;
     protected View mPullView;
     private int mTouchSlop;
-    private Scroller mScroller;
+    private int mMaximumVelocity;
+    private FlingSpring mSpring;
+    private VelocityTracker mVelocityTracker;
+    // 松手时的速度（px/s），只在松手后第一次回弹中使用
+    private float mReleaseVelocity;
     protected float downY, downX;
     private boolean isScrolling = false;
     protected float tepmX;
     protected float tepmY;
-    private static final int MAX_DURATION = 600;
-    private static final int MIN_DURATION = 300;
     private boolean canPullUp = true;
     private boolean canPullDown = true;
     protected OnScrollListener mOnScrollListener;
@@ -72,9 +78,25 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     protected int version;
     int mPointerId;
     protected int MAXDISTANCE = 0;
+    private DampingCurve mDampingCurve;
+    // 手势性能统计，默认为 null 不统计
+    private GestureMetrics mGestureMetrics;
+    // systrace 区段，默认为 null 不记录
+    TraceSections mTrace;
+    static final int TRACE_TOUCH = 0;
+    static final int TRACE_COMPUTE_SCROLL = 1;
+    static final int TRACE_HEADER_STATE = 2;
+    static final int TRACE_FOOTER_STATE = 3;
 
     float moveY = 0;
 
+    // 嵌套滑动回调中复用的临时数组，避免每次回调都 new int[2]
+    private final int[] mNestedOffsetInWindow = new int[2];
+    private final int[] mNestedParentConsumed = new int[2];
+    // 最近一次嵌套滑动目标及其 Pullable，避免每次 fling 都重新创建适配器
+    private View mNestedTarget;
+    private Pullable mNestedPullable;
+
     public View getPullView() {
         return mPullView;
     }
@@ -94,8 +116,11 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
 
     public void init(Context context) {
         version = android.os.Build.VERSION.SDK_INT;
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
-        mScroller = new Scroller(context, new AccelerateDecelerateInterpolator());
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMaximumVelocity = configuration.getScaledMaximumFlingVelocity();
+        mSpring = new FlingSpring();
+        mDampingCurve = new DampingCurve.Linear();
         mParentHelper = new NestedScrollingParentHelper(this);
         mChildHelper = new NestedScrollingChildHelper(this);
     }
@@ -105,13 +130,53 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
         MAXDISTANCE = getMeasuredHeight() * 3 / 5;
+        buildDampingTable();
+    }
+
+    private void buildDampingTable() {
+        mDampingCurve.build(maxDistance == 0 ? MAXDISTANCE : maxDistance);
+    }
+
+    /**
+     * 设置拉动阻尼曲线
+     *
+     * @param dampingCurve 每个FlingLayout需要单独的实例
+     */
+    public void setDampingCurve(DampingCurve dampingCurve) {
+        if (dampingCurve == null) {
+            throw new NullPointerException("dampingCurve not allowed null!!!");
+        }
+        mDampingCurve = dampingCurve;
+        buildDampingTable();
+    }
+
+    public DampingCurve getDampingCurve() {
+        return mDampingCurve;
     }
 
     @Override
     public void computeScroll() {
-        if (!mScroller.isFinished()) {
-            if (mScroller.computeScrollOffset()) {
-                moveTo(mScroller.getCurrY());
+        TraceSections trace = mTrace;
+        if (trace == null) {
+            computeSpring();
+        } else {
+            trace.begin(TRACE_COMPUTE_SCROLL);
+            try {
+                computeSpring();
+            } finally {
+                trace.end();
+            }
+        }
+        super.computeScroll();
+    }
+
+    private void computeSpring() {
+        if (!mSpring.isFinished()) {
+            if (mSpring.computeOffset(AnimationUtils.currentAnimationTimeMillis())) {
+                moveTo(mSpring.getCurrY());
+                if (mSpring.isFinished() && mSpring.getFinalY() == 0) {
+                    handOffVelocity(mSpring.getLeftoverVelocity());
+                }
                 ViewCompat.postInvalidateOnAnimation(this);
             } else if (stateType == SCROLL_STATE_FLING) {
                 setScrollState(SCROLL_STATE_IDLE);
@@ -119,7 +184,6 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         } else if (stateType == SCROLL_STATE_FLING) {
             setScrollState(SCROLL_STATE_IDLE);
         }
-        super.computeScroll();
     }
 
 
@@ -140,8 +204,15 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     private void moveTo(float y) {
         setMoveY(y);
         setScrollState(tempStateType);
-        Log.i("flingLayout", "moveY:" + y);
+        if (PullLog.DEBUG) {
+            PullLog.i("flingLayout", "moveY:", y);
+        }
+        GestureMetrics metrics = mGestureMetrics;
+        long start = metrics != null ? System.nanoTime() : 0;
         boolean intercept = onScroll(y);
+        if (metrics != null) {
+            metrics.onFrame(stateType, System.nanoTime() - start);
+        }
         if (mOnScrollListener != null) {
             mOnScrollListener.onScroll(this, y);
         }
@@ -154,11 +225,16 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         if (this.stateType != stateType) {
             this.stateType = stateType;
             this.tempStateType = stateType;
-            Log.i("flingLayout", "onScrollChange:" + stateType);
+            if (PullLog.DEBUG) {
+                PullLog.i("flingLayout", "onScrollChange:", stateType);
+            }
             onScrollChange(stateType);
             if (mOnScrollListener != null) {
                 mOnScrollListener.onScrollChange(this, stateType);
             }
+            if (mGestureMetrics != null) {
+                mGestureMetrics.onScrollStateChanged(stateType);
+            }
         }
     }
 
@@ -170,7 +246,7 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         if (view == null) {
             return;
         }
-        ViewHelper.setTranslationY(view, value);
+        view.setTranslationY(value);
     }
 
     private void setMoveY(float moveY) {
@@ -183,12 +259,11 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
 
     public int startMoveBy(float startY, float dy) {
         setScrollState(SCROLL_STATE_FLING);
-        int duration = (int) Math.abs(dy);
-        int time = Math.min(MAX_DURATION,duration);
-        time = Math.max(MIN_DURATION,time);
-        mScroller.startScroll(0, (int) startY, 0, (int) dy, time);
+        float velocity = mReleaseVelocity;
+        mReleaseVelocity = 0;
+        mSpring.start(startY, startY + dy, velocity, AnimationUtils.currentAnimationTimeMillis());
         invalidate();
-        return time;
+        return mSpring.estimateDuration();
     }
 
     public int startMoveTo(float startY, float endY) {
@@ -196,15 +271,47 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     }
 
 
-    private void startFling() {
+    private void startFling(float velocity) {
         float nowY = getMoveY();
         if (nowY != 0) {
+            mReleaseVelocity = velocity;
             if (!onStartFling(nowY)) {
                 startMoveTo(nowY, 0);
             }
         } else {
             setScrollState(SCROLL_STATE_IDLE);
         }
+        mReleaseVelocity = 0;
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onRelease(stateType);
+        }
+    }
+
+    /**
+     * 回弹穿过原点时把剩余速度交给内容视图继续滚动
+     *
+     * @param velocity 剩余速度（px/s），与 moveY 同向
+     */
+    private void handOffVelocity(float velocity) {
+        int velocityY = (int) -velocity;
+        if (velocityY == 0 || mPullView == null || ViewCompat.isNestedScrollingEnabled(mPullView)) {
+            //嵌套滑动时内容视图会自己处理fling
+            return;
+        }
+        if (dispatchNestedPreFling(0, velocityY)) {
+            return;
+        }
+        boolean consumed = false;
+        if (mPullView instanceof RecyclerView) {
+            consumed = ((RecyclerView) mPullView).fling(0, velocityY);
+        } else if (mPullView instanceof NestedScrollView) {
+            ((NestedScrollView) mPullView).fling(velocityY);
+            consumed = true;
+        } else if (mPullView instanceof ScrollView) {
+            ((ScrollView) mPullView).fling(velocityY);
+            consumed = true;
+        }
+        dispatchNestedFling(0, velocityY, consumed);
     }
 
     @Override
@@ -217,6 +324,7 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
 
     public void setMaxDistance(int maxDistance) {
         this.maxDistance = maxDistance;
+        buildDampingTable();
     }
 
 
@@ -238,14 +346,35 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
+        TraceSections trace = mTrace;
+        if (trace == null) {
+            return handleTouchEvent(ev);
+        }
+        trace.begin(TRACE_TOUCH);
+        try {
+            return handleTouchEvent(ev);
+        } finally {
+            trace.end();
+        }
+    }
+
+    private boolean handleTouchEvent(MotionEvent ev) {
         if (mPullView != null && !ViewCompat.isNestedScrollingEnabled(mPullView)) {
             float moveY = getMoveY();
             int pointerCount = ev.getPointerCount();
             int pointerIndex = ev.getActionIndex();
-            if (!mScroller.isFinished()) {
-                mScroller.abortAnimation();
+            if (!mSpring.isFinished()) {
+                mSpring.abort();
             }
-            switch (ev.getActionMasked()) {
+            if (mVelocityTracker == null) {
+                mVelocityTracker = VelocityTracker.obtain();
+            }
+            int action = ev.getActionMasked();
+            if (action == MotionEvent.ACTION_DOWN) {
+                mVelocityTracker.clear();
+            }
+            mVelocityTracker.addMovement(ev);
+            switch (action) {
                 case MotionEvent.ACTION_DOWN:
                     mPointerId = ev.getPointerId(pointerIndex);
                     float x = ev.getX(pointerIndex);
@@ -253,6 +382,9 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
                     tepmY = downY = y;
                     tepmX = downX = x;
                     tempStateType = SCROLL_STATE_TOUCH_SCROLL;
+                    if (mGestureMetrics != null) {
+                        mGestureMetrics.onTouchDown(ev.getEventTime(), moveY != 0);
+                    }
                     if (moveY != 0) {
                         return true;
                     }
@@ -291,28 +423,13 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
                             //当不在0,0处
                             ev.setAction(MotionEvent.ACTION_CANCEL);//屏蔽原事件
 
-                            if ((moveY < 0 && moveY + dataY >= 0) || (moveY > 0 && moveY + dataY <= 0)) {
+                            float targetY = mDampingCurve.step(moveY, dataY, maxDistance);
+                            if (targetY == 0) {
                                 //在0,0附近浮动
                                 ev.setAction(MotionEvent.ACTION_DOWN);
                                 moveTo(0);
-                            } else if ((moveY > 0 && dataY > 0) || (moveY < 0 && dataY < 0)) {
-                                //是否超过最大距离
-                                if (maxDistance == 0 || Math.abs(moveY) < maxDistance) {
-                                    int ps = 0;
-                                    int hDataY = dataY / 2;
-                                    if (maxDistance == 0) {
-                                        ps = (int) (-hDataY * Math.abs(moveY) / (float) MAXDISTANCE) - hDataY;
-                                    } else {
-                                        ps = (int) (-hDataY * Math.abs(moveY) / (float) maxDistance) - hDataY;
-                                    }
-                                    moveBy(ps + dataY);
-                                } else if (moveY > maxDistance) {
-                                    moveTo(maxDistance);
-                                } else if (moveY < -maxDistance) {
-                                    moveTo(-maxDistance);
-                                }
-                            } else {
-                                moveBy(dataY);
+                            } else if (targetY != moveY) {
+                                moveTo(targetY);
                             }
                         }
                     } else {
@@ -321,7 +438,12 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
                     break;
                 case MotionEvent.ACTION_CANCEL:
                 case MotionEvent.ACTION_UP:
-                    startFling();
+                    float velocity = 0;
+                    if (isScrolling && action == MotionEvent.ACTION_UP) {
+                        mVelocityTracker.computeCurrentVelocity(1000, mMaximumVelocity);
+                        velocity = mVelocityTracker.getYVelocity(mPointerId);
+                    }
+                    startFling(velocity);
                     isScrolling = false;
                     break;
                 case MotionEvent.ACTION_POINTER_UP:
@@ -368,17 +490,22 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     public void onNestedScrollAccepted(View child, View target, int nestedScrollAxes) {
         mParentHelper.onNestedScrollAccepted(child, target, nestedScrollAxes);
         startNestedScroll(ViewCompat.SCROLL_AXIS_VERTICAL);
+        if (mGestureMetrics != null) {
+            mGestureMetrics.onTouchDown(SystemClock.uptimeMillis(), getMoveY() != 0);
+        }
     }
 
     @Override
     public void onStopNestedScroll(View target) {
-        startFling();
+        startFling(mReleaseVelocity);
         stopNestedScroll();
     }
 
     @Override
     public void onNestedScroll(View target, int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed) {
-        int[] offsetInWindow = new int[2];
+        int[] offsetInWindow = mNestedOffsetInWindow;
+        offsetInWindow[0] = 0;
+        offsetInWindow[1] = 0;
         dispatchNestedScroll(0, dyConsumed, 0, dyUnconsumed, offsetInWindow);
         moveBy(-dyUnconsumed - offsetInWindow[1]);
     }
@@ -392,33 +519,20 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         } else {
             consumed[0] = 0;
             stopNestedScroll();
-            int dataY = -dy;
-            if ((moveY < 0 && moveY + dataY >= 0) || (moveY > 0 && moveY + dataY <= 0)) {
+            float targetY = mDampingCurve.step(moveY, -dy, maxDistance);
+            if (targetY == 0) {
                 moveTo(0);
                 startNestedScroll(ViewCompat.SCROLL_AXIS_VERTICAL);
                 consumed[1] = (int) (moveY - 0);
-                int[] pconsumed = new int[2];
+                int[] pconsumed = mNestedParentConsumed;
+                pconsumed[0] = 0;
+                pconsumed[1] = 0;
                 dispatchNestedPreScroll(0, dy - consumed[1], pconsumed, null);
                 consumed[1] += pconsumed[1];
-            } else if ((moveY > 0 && dataY > 0) || (moveY < 0 && dataY < 0)) {
-                //是否超过最大距离
-                if (maxDistance == 0 || Math.abs(moveY) < maxDistance) {
-                    int ps = 0;
-                    int hDataY = dataY / 2;
-                    if (maxDistance == 0) {
-                        ps = (int) (-hDataY * Math.abs(moveY) / (float) MAXDISTANCE) - hDataY;
-                    } else {
-                        ps = (int) (-hDataY * Math.abs(moveY) / (float) maxDistance) - hDataY;
-                    }
-                    moveBy(ps + dataY);
-                } else if (moveY > maxDistance) {
-                    moveTo(maxDistance);
-                } else if (moveY < -maxDistance) {
-                    moveTo(-maxDistance);
-                }
-                consumed[1] = dy;
             } else {
-                moveBy(dataY);
+                if (targetY != moveY) {
+                    moveTo(targetY);
+                }
                 consumed[1] = dy;
             }
         }
@@ -435,7 +549,11 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         if (consumed) {
             return true;
         }
-        Pullable pullable = CanPullUtil.getPullAble(target);
+        if (getMoveY() != 0) {
+            //记录松手速度，在onStopNestedScroll中用于回弹
+            mReleaseVelocity = -velocityY;
+        }
+        Pullable pullable = getNestedPullable(target);
         if (pullable != null) {
             if (pullable.isGetBottom() && velocityY < 0) {
                 return true;
@@ -446,6 +564,17 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
         return false;
     }
 
+    private Pullable getNestedPullable(View target) {
+        if (target == mPullView) {
+            return pullable;
+        }
+        if (target != mNestedTarget) {
+            mNestedTarget = target;
+            mNestedPullable = CanPullUtil.getPullAble(target);
+        }
+        return mNestedPullable;
+    }
+
     @Override
     public int getNestedScrollAxes() {
         return mParentHelper.getNestedScrollAxes();
@@ -496,6 +625,12 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     public void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         mChildHelper.onDetachedFromWindow();
+        mNestedTarget = null;
+        mNestedPullable = null;
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
     }
 
     /******************************************************************/
@@ -521,4 +656,26 @@ public class FlingLayout extends FrameLayout implements NestedScrollingChild, Ne
     public void setOnScrollListener(OnScrollListener mOnScrollListener) {
         this.mOnScrollListener = mOnScrollListener;
     }
+
+    /**
+     * 开启手势性能统计，传 null 关闭
+     */
+    public void setGestureMetrics(GestureMetrics metrics) {
+        mGestureMetrics = metrics;
+    }
+
+    public GestureMetrics getGestureMetrics() {
+        return mGestureMetrics;
+    }
+
+    /**
+     * 开启 systrace 区段：dispatchTouchEvent、computeScroll 以及头部/脚部的 onStateChange，
+     * 区段名称为 "tag:阶段"，多个实例用不同的 tag 区分
+     *
+     * @param tag 为 null 时关闭
+     */
+    public void setTraceTag(String tag) {
+        mTrace = tag == null ? null : new TraceSections(tag,
+                "dispatchTouchEvent", "computeScroll", "header.onStateChange", "footer.onStateChange");
+    }
 }
\ No newline at end of file
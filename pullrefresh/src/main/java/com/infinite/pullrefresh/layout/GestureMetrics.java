@@ -0,0 +1,198 @@
+package com.infinite.pullrefresh.layout;
+
+import android.os.SystemClock;
+
+import com.infinite.pullrefresh.support.utils.Histogram;
+
+/**
+ * FlingLayout 的手势性能统计，通过 {@link FlingLayout#setGestureMetrics(GestureMetrics)} 开启
+ * <p>
+ * 一次手势从按下开始，经过拖动、松手回弹，回到 {@link FlingLayout#SCROLL_STATE_IDLE} 时结束。
+ * 这里的"帧"指一次位移更新（触摸 MOVE 或回弹的 computeScroll）。拖动中手指停住时不会有 MOVE 事件，
+ * 所以只在回弹中统计超时帧：回弹每个 vsync 都会更新，两次更新间隔超过 16ms 即为掉帧。
+ * 每次手势结束后回调 {@link Listener}，同时汇总到各个 {@link Histogram}。
+ * 没有设置时 FlingLayout 只多一次 null 判断；只在主线程使用
+ */
+public class GestureMetrics {
+
+    private static final long FRAME_BUDGET_NANOS = 16666667L;
+
+    public interface Listener {
+        /**
+         * @param gesture 刚结束的手势，回调返回后会被复用，需要保存时请复制其中的值
+         */
+        void onGesture(Gesture gesture);
+    }
+
+    /**
+     * 单次手势的数据
+     */
+    public static class Gesture {
+        /**
+         * 按下到第一次位移的时间（ms），按下时已经处于拉出状态时为 0
+         */
+        public long touchToFirstFrameMs;
+        /**
+         * 拖动中的帧数
+         */
+        public int dragFrames;
+        /**
+         * 松手后回弹的时长（ms），没有回弹时为 0
+         */
+        public long settleMs;
+        /**
+         * 回弹中间隔超过 16ms 的帧数
+         */
+        public int jankFrames;
+        /**
+         * 所有帧中 {@link FlingLayout#onScroll(float)}（PullRefreshLayout 中即头部、脚部的 onScroll）的总耗时（μs）
+         */
+        public long scrollCallbackMicros;
+
+        void reset() {
+            touchToFirstFrameMs = 0;
+            dragFrames = 0;
+            settleMs = 0;
+            jankFrames = 0;
+            scrollCallbackMicros = 0;
+        }
+    }
+
+    private final Gesture mGesture = new Gesture();
+    private final Histogram mTouchToFirstFrame = new Histogram();
+    private final Histogram mDragFrames = new Histogram();
+    private final Histogram mSettleDuration = new Histogram();
+    private final Histogram mJankFrames = new Histogram();
+    private final Histogram mScrollCallback = new Histogram();
+    private Listener mListener;
+
+    private long mDownTime = -1;
+    private long mSettleStart = -1;
+    private long mLastFrameNanos;
+    private boolean mActive;
+
+    public void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * @return 按下到第一次位移的时间（ms）
+     */
+    public Histogram getTouchToFirstFrame() {
+        return mTouchToFirstFrame;
+    }
+
+    /**
+     * @return 每次手势拖动中的帧数
+     */
+    public Histogram getDragFrames() {
+        return mDragFrames;
+    }
+
+    /**
+     * @return 每次手势回弹的时长（ms）
+     */
+    public Histogram getSettleDuration() {
+        return mSettleDuration;
+    }
+
+    /**
+     * @return 每次手势回弹中超过 16ms 的帧数
+     */
+    public Histogram getJankFrames() {
+        return mJankFrames;
+    }
+
+    /**
+     * @return 每帧 {@link FlingLayout#onScroll(float)} 的耗时（μs）
+     */
+    public Histogram getScrollCallback() {
+        return mScrollCallback;
+    }
+
+    public void reset() {
+        mTouchToFirstFrame.reset();
+        mDragFrames.reset();
+        mSettleDuration.reset();
+        mJankFrames.reset();
+        mScrollCallback.reset();
+    }
+
+    /**
+     * @param eventTime 按下事件的时间，{@link SystemClock#uptimeMillis()} 时基
+     */
+    void onTouchDown(long eventTime, boolean alreadyMoved) {
+        mGesture.reset();
+        mDownTime = alreadyMoved ? -1 : eventTime;
+        mSettleStart = -1;
+        mLastFrameNanos = 0;
+        mActive = true;
+    }
+
+    /**
+     * 一次位移更新
+     *
+     * @param scrollState    当前滚动状态
+     * @param callbackNanos  本次 onScroll 回调的耗时
+     */
+    void onFrame(int scrollState, long callbackNanos) {
+        if (!mActive) {
+            return;
+        }
+        long now = System.nanoTime();
+        Gesture gesture = mGesture;
+        if (mDownTime >= 0) {
+            gesture.touchToFirstFrameMs = SystemClock.uptimeMillis() - mDownTime;
+            mTouchToFirstFrame.record(gesture.touchToFirstFrameMs);
+            mDownTime = -1;
+        }
+        if (scrollState == FlingLayout.SCROLL_STATE_FLING) {
+            if (mLastFrameNanos != 0 && now - mLastFrameNanos > FRAME_BUDGET_NANOS) {
+                gesture.jankFrames++;
+            }
+            mLastFrameNanos = now;
+        } else if (scrollState == FlingLayout.SCROLL_STATE_TOUCH_SCROLL) {
+            gesture.dragFrames++;
+        }
+        long micros = callbackNanos / 1000;
+        gesture.scrollCallbackMicros += micros;
+        mScrollCallback.record(micros);
+    }
+
+    void onScrollStateChanged(int scrollState) {
+        if (!mActive) {
+            return;
+        }
+        if (scrollState == FlingLayout.SCROLL_STATE_FLING) {
+            mSettleStart = SystemClock.uptimeMillis();
+            mLastFrameNanos = 0;
+        } else if (scrollState == FlingLayout.SCROLL_STATE_IDLE) {
+            finish();
+        }
+    }
+
+    /**
+     * 松手（UP/CANCEL 或嵌套滑动结束），没有移动过的点击不会进入回弹，此时直接结束
+     *
+     * @param scrollState 松手处理之后的滚动状态
+     */
+    void onRelease(int scrollState) {
+        if (mActive && scrollState == FlingLayout.SCROLL_STATE_IDLE) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        Gesture gesture = mGesture;
+        if (mSettleStart >= 0) {
+            gesture.settleMs = SystemClock.uptimeMillis() - mSettleStart;
+        }
+        mActive = false;
+        mDragFrames.record(gesture.dragFrames);
+        mSettleDuration.record(gesture.settleMs);
+        mJankFrames.record(gesture.jankFrames);
+        if (mListener != null) {
+            mListener.onGesture(gesture);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.infinite.pullrefresh.layout;
 
 import android.content.Context;
-import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.View;
 
@@ -10,15 +9,16 @@ import android.view.View;
  */
 public class MiFliingLayout extends FlingLayout {
     public MiFliingLayout(Context context) {
-        super(context);
+        this(context, null);
     }
 
     public MiFliingLayout(Context context, AttributeSet attrs) {
-        super(context, attrs);
+        this(context, attrs, 0);
     }
 
     public MiFliingLayout(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
+        setDampingCurve(new DampingCurve.Miui());
     }
 
 
@@ -27,11 +27,11 @@ public class MiFliingLayout extends FlingLayout {
         View view = getPullView();
         int heigth = view.getMeasuredHeight();
         if (y >= 0) {
-            ViewCompat.setPivotY(view, 0);
-            ViewCompat.setScaleY(view, (heigth + y) / heigth);
+            view.setPivotY(0);
+            view.setScaleY((heigth + y) / heigth);
         } else {
-            ViewCompat.setPivotY(view, heigth);
-            ViewCompat.setScaleY(view, (heigth - y) / heigth);
+            view.setPivotY(heigth);
+            view.setScaleY((heigth - y) / heigth);
         }
         return true;
     }
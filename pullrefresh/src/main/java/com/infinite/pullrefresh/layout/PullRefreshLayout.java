@@ -127,9 +127,28 @@ public class PullRefreshLayout extends FlingLayout {
             mFooter = (Loadable) child;
             mFooter.setPullRefreshLayout(this);
         }
+        updateChildTrace();
         super.addView(child, index, params);
     }
 
+    @Override
+    public void setTraceTag(String tag) {
+        super.setTraceTag(tag);
+        updateChildTrace();
+    }
+
+    /**
+     * 头部/脚部的 onStateChange 与本布局共用同一组区段
+     */
+    private void updateChildTrace() {
+        if (mHeader instanceof BaseHeaderView) {
+            ((BaseHeaderView) mHeader).mTrace = mTrace;
+        }
+        if (mFooter instanceof BaseFooterView) {
+            ((BaseFooterView) mFooter).mTrace = mTrace;
+        }
+    }
+
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
         super.onLayout(changed, l, t, r, b);
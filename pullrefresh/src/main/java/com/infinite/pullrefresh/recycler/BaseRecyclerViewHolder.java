@@ -23,22 +23,30 @@ public class BaseRecyclerViewHolder extends RecyclerView.ViewHolder implements V
 
     private ItemLongClickListener mItemLongClickListener;
 
+    private MyClickListener mClickListener;
+
+    private ItemClickDispatcher mClickDispatcher;
+
+    private ItemClickDispatcher mLongClickDispatcher;
+
+    long mLastClickTime;  //ItemClickDispatcher按item防重复点击时的上次点击时间
+
     public BaseRecyclerViewHolder(ViewGroup parent, int layoutId) {
         this(LayoutInflater.from(parent.getContext()).inflate(layoutId, parent, false));
     }
 
-    public BaseRecyclerViewHolder(final View itemView) {
+    public BaseRecyclerViewHolder(View itemView) {
         super(itemView);
+        onBindViews(itemView);
+    }
+
+    /**
+     * 绑定子视图，默认使用ButterKnife，每个类第一次绑定时会反射查找绑定类。
+     * 子类可以重写此方法手动findViewById，或直接创建生成的绑定类（如 XxxHolder_ViewBinding）来避免反射；
+     * 没有子视图需要绑定时重写为空方法即可
+     */
+    protected void onBindViews(View itemView) {
         ButterKnife.bind(this, itemView);
-        getRootView().setOnClickListener(new MyClickListener() {
-            @Override
-            protected void onMyClick(View v) {
-                if (mItemClickListener != null) {
-                    mItemClickListener.onItemClick(itemView, getLayoutPosition());
-                }
-            }
-        });
-        getRootView().setOnLongClickListener(this);
     }
 
     @Override
@@ -50,16 +58,48 @@ public class BaseRecyclerViewHolder extends RecyclerView.ViewHolder implements V
         return false;
     }
 
+    /**
+     * 单独使用ViewHolder时设置点击事件，在RefreshAdapter中由 {@link ItemClickDispatcher} 统一分发
+     */
     public BaseRecyclerViewHolder setItemClickListener(ItemClickListener itemClickListener) {
         mItemClickListener = itemClickListener;
+        if (mClickListener == null) {
+            mClickListener = new MyClickListener() {
+                @Override
+                protected void onMyClick(View v) {
+                    if (mItemClickListener != null) {
+                        mItemClickListener.onItemClick(itemView, getLayoutPosition());
+                    }
+                }
+            };
+        }
+        getRootView().setOnClickListener(mClickListener);
         return this;
     }
 
     public BaseRecyclerViewHolder setItemLongClickListener(ItemLongClickListener itemLongClickListener) {
         mItemLongClickListener = itemLongClickListener;
+        getRootView().setOnLongClickListener(this);
         return this;
     }
 
+    /**
+     * 由RefreshAdapter在注册了item点击监听时调用，会替换根视图上原有的点击监听
+     *
+     * @param click     是否分发点击
+     * @param longClick 是否分发长按
+     */
+    void setClickDispatcher(ItemClickDispatcher dispatcher, boolean click, boolean longClick) {
+        if (click && mClickDispatcher != dispatcher) {
+            mClickDispatcher = dispatcher;
+            getRootView().setOnClickListener(dispatcher);
+        }
+        if (longClick && mLongClickDispatcher != dispatcher) {
+            mLongClickDispatcher = dispatcher;
+            getRootView().setOnLongClickListener(dispatcher);
+        }
+    }
+
     public interface ItemClickListener {
         void onItemClick(View itemView, int position);
     }
@@ -71,4 +111,17 @@ public class BaseRecyclerViewHolder extends RecyclerView.ViewHolder implements V
     public View getRootView() {
         return super.itemView;
     }
+
+    /**
+     * 头部、脚部等固定视图使用的ViewHolder，不需要绑定
+     */
+    static class FixedViewHolder extends BaseRecyclerViewHolder {
+        FixedViewHolder(View itemView) {
+            super(itemView);
+        }
+
+        @Override
+        protected void onBindViews(View itemView) {
+        }
+    }
 }
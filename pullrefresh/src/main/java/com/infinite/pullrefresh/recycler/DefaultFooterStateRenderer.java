@@ -0,0 +1,81 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.view.View;
+
+import com.infinite.pullrefresh.R;
+
+/**
+ * 默认footer（view_recycler_load_more）的状态显示
+ * <p>
+ * 子视图只在bind时查找一次，切换状态时只隐藏上一个、显示下一个，
+ * 状态没变时不做任何操作，避免重复布局
+ */
+public class DefaultFooterStateRenderer implements FooterStateRenderer {
+
+    private static final int INDEX_NONE = -1;
+    private static final int INDEX_LOADING = 0;
+    private static final int INDEX_PULL_LOAD_MORE = 1;
+    private static final int INDEX_NO_MORE = 2;
+    private static final int INDEX_ERROR = 3;
+
+    private View mRoot;
+    private final View[] mStateViews = new View[4];
+    private int mIndex = INDEX_NONE;
+    private int mContentVisibility;
+
+    @Override
+    public void bind(View footer) {
+        View root = footer.findViewById(R.id.ll_root);
+        mRoot = root != null ? root : footer;
+        mStateViews[INDEX_LOADING] = footer.findViewById(R.id.ll_more);
+        mStateViews[INDEX_PULL_LOAD_MORE] = footer.findViewById(R.id.tv_pull_load_more);
+        mStateViews[INDEX_NO_MORE] = footer.findViewById(R.id.tv_no_more);
+        mStateViews[INDEX_ERROR] = footer.findViewById(R.id.tv_error);
+        mContentVisibility = mRoot.getVisibility();
+        mIndex = INDEX_NONE;
+        for (int i = 0; i < mStateViews.length; i++) {
+            View view = mStateViews[i];
+            if (view != null && view.getVisibility() == View.VISIBLE) {
+                mIndex = i;
+            }
+        }
+    }
+
+    @Override
+    public void setContentVisibility(int visibility) {
+        if (mRoot != null && mContentVisibility != visibility) {
+            mContentVisibility = visibility;
+            mRoot.setVisibility(visibility);
+        }
+    }
+
+    @Override
+    public void render(FooterStatusHandle status, boolean showNoMore) {
+        setContentVisibility(View.VISIBLE);
+        int index;
+        switch (status) {
+            case TYPE_LOADING_MORE:
+                index = INDEX_LOADING;
+                break;
+            case TYPE_PULL_LOAD_MORE:
+                index = INDEX_PULL_LOAD_MORE;
+                break;
+            case TYPE_ERROR:
+                index = INDEX_ERROR;
+                break;
+            default:
+                index = showNoMore ? INDEX_NO_MORE : INDEX_NONE;
+                break;
+        }
+        if (index == mIndex) {
+            return;
+        }
+        if (mIndex != INDEX_NONE && mStateViews[mIndex] != null) {
+            mStateViews[mIndex].setVisibility(View.GONE);
+        }
+        if (index != INDEX_NONE && mStateViews[index] != null) {
+            mStateViews[index].setVisibility(View.VISIBLE);
+        }
+        mIndex = index;
+    }
+}
@@ -31,12 +31,36 @@ import com.infinite.pullrefresh.R;
       */
      private float mItemSize = 0.5f;
 
+     /**
+      * 分割线实际的像素宽度：mItemSize四舍五入且至少1px，线宽、线的位置和预留的空间都用这一个值，
+      * 避免小数宽度（例如3倍屏上的0.5dp）画到下一个item上
+      */
+     private int mDividerSize;
+
      /**
       * 绘制item分割线的画笔，和设置其属性
-      * 来绘制个性分割线
+      * 来绘制个性分割线。分割线都是水平或竖直的，不需要抗锯齿
       */
      private Paint mPaint ;
 
+     /**
+      * 每帧收集所有分割线的端点，一次drawLines画完，数组按需扩容后复用
+      */
+     private float[] mLines = new float[0];
+
+     private DividerRule mDividerRule;
+
+     /**
+      * 按item类型决定是否画分割线
+      */
+     public interface DividerRule {
+         /**
+          * @param viewType {@link RecyclerView.Adapter#getItemViewType(int)}
+          * @return 该类型的item后面是否有分割线
+          */
+         boolean hasDivider(int viewType);
+     }
+
      /**
       * 构造方法传入布局方向，不可不传
       * @param context
@@ -56,10 +80,35 @@ import com.infinite.pullrefresh.R;
             throw new IllegalArgumentException("illegal orientation arguments: " + orientation) ;
         }
         mItemSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,size, context.getResources().getDisplayMetrics());
-        mPaint = new Paint(Paint.ANTI_ALIAS_FLAG) ;
+        mDividerSize = Math.max(1, Math.round(mItemSize));
+        mPaint = new Paint() ;
         mPaint.setColor(color);
-         /*设置填充*/
-        mPaint.setStyle(Paint.Style.FILL);
+        /*线宽即分割线的粗细*/
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeCap(Paint.Cap.BUTT);
+        mPaint.setStrokeWidth(mDividerSize);
+    }
+
+    /**
+     * 设置按item类型的分割线规则，为null时所有item都画
+     */
+    public void setDividerRule(DividerRule rule) {
+        this.mDividerRule = rule;
+    }
+
+    private boolean hasDivider(RecyclerView parent, View child) {
+        if (mDividerRule == null) {
+            return true;
+        }
+        RecyclerView.ViewHolder holder = parent.getChildViewHolder(child);
+        return holder == null || mDividerRule.hasDivider(holder.getItemViewType());
+    }
+
+    private float[] obtainLines(int childCount) {
+        if (mLines.length < childCount * 4) {
+            mLines = new float[childCount * 4];
+        }
+        return mLines;
     }
 
      @Override
@@ -80,12 +129,26 @@ import com.infinite.pullrefresh.R;
          final int left = parent.getPaddingLeft();
          final int right = parent.getMeasuredWidth() - parent.getPaddingRight();
          final int childSize = parent.getChildCount() - 1;  // 最后一根线不用画
+         if (childSize <= 0) {
+             return;
+         }
+         final float[] lines = obtainLines(childSize);
+         final float half = mDividerSize / 2f;
+         int count = 0;
          for (int i = 0; i < childSize; i++) {
              final View child = parent.getChildAt(i);
+             if (!hasDivider(parent, child)) {
+                 continue;
+             }
              RecyclerView.LayoutParams layoutParams = (RecyclerView.LayoutParams) child.getLayoutParams();
-             final float top = child.getBottom() + layoutParams.bottomMargin;
-             final float bottom = top + mItemSize;
-             canvas.drawRect(left, top, right, bottom, mPaint);
+             final float y = child.getBottom() + layoutParams.bottomMargin + half;
+             lines[count++] = left;
+             lines[count++] = y;
+             lines[count++] = right;
+             lines[count++] = y;
+         }
+         if (count > 0) {
+             canvas.drawLines(lines, 0, count, mPaint);
          }
      }
 
@@ -98,12 +161,26 @@ import com.infinite.pullrefresh.R;
          final int top = parent.getPaddingTop();
          final int bottom = parent.getMeasuredHeight() - parent.getPaddingBottom();
          final int childSize = parent.getChildCount();
+         if (childSize <= 0) {
+             return;
+         }
+         final float[] lines = obtainLines(childSize);
+         final float half = mDividerSize / 2f;
+         int count = 0;
          for (int i = 0; i < childSize; i++) {
              final View child = parent.getChildAt(i);
+             if (!hasDivider(parent, child)) {
+                 continue;
+             }
              RecyclerView.LayoutParams layoutParams = (RecyclerView.LayoutParams) child.getLayoutParams();
-             final float left = child.getRight() + layoutParams.rightMargin;
-             final float right = left + Math.max(mItemSize,1.0f);
-             canvas.drawRect(left, top, right, bottom, mPaint);
+             final float x = child.getRight() + layoutParams.rightMargin + half;
+             lines[count++] = x;
+             lines[count++] = top;
+             lines[count++] = x;
+             lines[count++] = bottom;
+         }
+         if (count > 0) {
+             canvas.drawLines(lines, 0, count, mPaint);
          }
      }
 
@@ -116,10 +193,12 @@ import com.infinite.pullrefresh.R;
       */
      @Override
      public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state) {
-         if (mOrientation == LinearLayoutManager.VERTICAL) {
-             outRect.set(0, 0, 0, Math.max((int)mItemSize,1));
+         if (!hasDivider(parent, view)) {
+             outRect.set(0, 0, 0, 0);
+         } else if (mOrientation == LinearLayoutManager.VERTICAL) {
+             outRect.set(0, 0, 0, mDividerSize);
          } else {
-             outRect.set(0, 0, Math.max((int)mItemSize,1), 0);
+             outRect.set(0, 0, mDividerSize, 0);
          }
      }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.view.View;
+
+/**
+ * 负责把 {@link FooterStatusHandle} 显示到footer上，自定义footer（例如骨架屏）时实现此接口
+ */
+public interface FooterStateRenderer {
+
+    /**
+     * 设置footer时调用一次，在这里查找并保存子视图
+     */
+    void bind(View footer);
+
+    /**
+     * 显示或隐藏整个footer的内容
+     */
+    void setContentVisibility(int visibility);
+
+    /**
+     * @param status     footer状态，没有更多时为 {@link FooterStatusHandle#TYPE_NO_MORE}
+     * @param showNoMore 没有更多时是否显示提示
+     */
+    void render(FooterStatusHandle status, boolean showNoMore);
+}
@@ -1,11 +0,0 @@
-package com.infinite.pullrefresh.recycler;
-
-/**
- * Created by Administrator on 2016-06-18.
- */
-public enum FooterStatusHandle {
-    TYPE_PULL_LOAD_MORE,
-    TYPE_LOADING_MORE,
-    TYPE_ERROR,
-    TYPE_NO_MORE;
-}
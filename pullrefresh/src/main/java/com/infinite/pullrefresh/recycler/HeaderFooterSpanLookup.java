@@ -0,0 +1,141 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * 网格模式下的SpanSizeLookup，header和footer占满一行，内容item的跨度由 {@link #getContentSpanSize(int, int)} 决定
+ * <p>
+ * 每个位置的跨度算过一次后缓存起来，并开启了span index缓存；
+ * 适配器数据变化时通过AdapterDataObserver清空缓存，header/footer变化时由 {@link RefreshRecycleView} 调用 {@link #invalidate()}。
+ * 自定义跨度（例如 {@link GridStaggerLookup}）时继承此类并重写 {@link #getContentSpanSize(int, int)}，
+ * 结果只能依赖位置，不能依赖其他会变化的状态，否则需要手动 {@link #invalidate()}
+ */
+public class HeaderFooterSpanLookup extends GridLayoutManager.SpanSizeLookup {
+
+    private static final int UNKNOWN = 0;
+
+    private final RefreshRecycleView mRefreshRecycleView;
+    private RefreshAdapter mObservedAdapter;
+    private int[] mSpanSizes = new int[0];
+    private int mSpanCount;
+
+    private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            invalidate();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidateRange(positionStart, positionStart + itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            invalidateFrom(positionStart);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            invalidateFrom(positionStart);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            invalidateFrom(Math.min(fromPosition, toPosition));
+        }
+    };
+
+    public HeaderFooterSpanLookup(RefreshRecycleView view) {
+        mRefreshRecycleView = view;
+        setSpanIndexCacheEnabled(true);
+    }
+
+    /**
+     * 清空跨度和span index缓存
+     */
+    public void invalidate() {
+        Arrays.fill(mSpanSizes, UNKNOWN);
+        invalidateSpanIndexCache();
+    }
+
+    /**
+     * 插入或删除时，之前的位置不受影响，只清空之后的部分；加载更多追加数据时只需要重算新的几项
+     */
+    private void invalidateFrom(int position) {
+        invalidateRange(position, mSpanSizes.length);
+    }
+
+    private void invalidateRange(int start, int end) {
+        start = Math.max(0, Math.min(start, mSpanSizes.length));
+        end = Math.max(start, Math.min(end, mSpanSizes.length));
+        Arrays.fill(mSpanSizes, start, end, UNKNOWN);
+        invalidateSpanIndexCache();
+    }
+
+    @Override
+    public final int getSpanSize(int position) {
+        RefreshAdapter adapter = mRefreshRecycleView.getAdapter();
+        if (adapter != mObservedAdapter) {
+            observe(adapter);
+        }
+        if (adapter == null || position < 0) {
+            return 1;
+        }
+        int spanCount = getSpanCount();
+        if (spanCount != mSpanCount) {
+            mSpanCount = spanCount;
+            invalidate();
+        }
+        int[] spanSizes = mSpanSizes;
+        if (position >= spanSizes.length) {
+            spanSizes = Arrays.copyOf(spanSizes, Math.max(position + 1, adapter.getItemCount()));
+            mSpanSizes = spanSizes;
+        }
+        int spanSize = spanSizes[position];
+        if (spanSize == UNKNOWN) {
+            spanSize = computeSpanSize(adapter, position, spanCount);
+            spanSizes[position] = spanSize;
+        }
+        return spanSize;
+    }
+
+    private int computeSpanSize(RefreshAdapter adapter, int position, int spanCount) {
+        boolean headerVisible = adapter.isHeaderVisible();
+        if (headerVisible && position == 0) {
+            return spanCount;
+        }
+        if (adapter.isFooterVisible() && position == adapter.getItemCount() - 1) {
+            return spanCount;
+        }
+        return Math.max(1, Math.min(spanCount, getContentSpanSize(headerVisible ? position - 1 : position, spanCount)));
+    }
+
+    /**
+     * @param position  内容item的位置，不包含header
+     * @param spanCount 每行的总跨度
+     * @return 该item占的跨度，默认为1
+     */
+    protected int getContentSpanSize(int position, int spanCount) {
+        return 1;
+    }
+
+    private int getSpanCount() {
+        RecyclerView.LayoutManager manager = mRefreshRecycleView.getLayoutManager();
+        return manager instanceof GridLayoutManager ? ((GridLayoutManager) manager).getSpanCount() : 1;
+    }
+
+    private void observe(RefreshAdapter adapter) {
+        if (mObservedAdapter != null) {
+            mObservedAdapter.unregisterAdapterDataObserver(mObserver);
+        }
+        mObservedAdapter = adapter;
+        if (adapter != null) {
+            adapter.registerAdapterDataObserver(mObserver);
+        }
+        invalidate();
+    }
+}
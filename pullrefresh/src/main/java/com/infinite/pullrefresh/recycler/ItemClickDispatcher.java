@@ -0,0 +1,93 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * 一个adapter共用的点击分发，不再为每个ViewHolder创建监听器，点击时再查找位置。
+ * 位置使用adapter位置，已经提交但还没有布局的数据变化也会计算在内
+ */
+public class ItemClickDispatcher implements View.OnClickListener, View.OnLongClickListener {
+
+    /**
+     * 同一个item在间隔内的重复点击被忽略，每个item的上次点击时间记在其ViewHolder上，
+     * 不同item交替点击互不影响
+     */
+    public static final int DEBOUNCE_PER_VIEW = 0;
+    /**
+     * 任意item在间隔内的点击都被忽略
+     */
+    public static final int DEBOUNCE_GLOBAL = 1;
+
+    private static final int MIN_CLICK_DELAY_TIME = 500;
+
+    private final RecyclerView mRecyclerView;
+    private final BaseRecyclerViewHolder.ItemClickListener mClickListener;
+    private final BaseRecyclerViewHolder.ItemLongClickListener mLongClickListener;
+    private int mDebounceMode = DEBOUNCE_PER_VIEW;
+    private long mDebounceTime = MIN_CLICK_DELAY_TIME;
+    private long mLastClickTime;  //DEBOUNCE_GLOBAL时任意item的上次点击时间
+
+    public ItemClickDispatcher(RecyclerView recyclerView, BaseRecyclerViewHolder.ItemClickListener clickListener,
+                               BaseRecyclerViewHolder.ItemLongClickListener longClickListener) {
+        mRecyclerView = recyclerView;
+        mClickListener = clickListener;
+        mLongClickListener = longClickListener;
+    }
+
+    /**
+     * @param mode         {@link #DEBOUNCE_PER_VIEW} 或 {@link #DEBOUNCE_GLOBAL}
+     * @param debounceTime 防止快速点击的间隔（ms），0表示不限制
+     */
+    public void setDebounce(int mode, long debounceTime) {
+        mDebounceMode = mode;
+        mDebounceTime = debounceTime;
+    }
+
+    @Override
+    public void onClick(View v) {
+        RecyclerView.ViewHolder holder = getHolder(v);
+        if (holder == null) {
+            return;
+        }
+        if (mDebounceTime > 0) {
+            long currentTime = SystemClock.uptimeMillis();
+            if (mDebounceMode == DEBOUNCE_GLOBAL) {
+                if (currentTime - mLastClickTime < mDebounceTime) {
+                    return;
+                }
+                mLastClickTime = currentTime;
+            } else if (holder instanceof BaseRecyclerViewHolder) {
+                BaseRecyclerViewHolder baseHolder = (BaseRecyclerViewHolder) holder;
+                if (currentTime - baseHolder.mLastClickTime < mDebounceTime) {
+                    return;
+                }
+                baseHolder.mLastClickTime = currentTime;
+            }
+        }
+        int position = holder.getAdapterPosition();
+        if (position != RecyclerView.NO_POSITION && mClickListener != null) {
+            mClickListener.onItemClick(v, position);
+        }
+    }
+
+    @Override
+    public boolean onLongClick(View v) {
+        RecyclerView.ViewHolder holder = getHolder(v);
+        int position = holder == null ? RecyclerView.NO_POSITION : holder.getAdapterPosition();
+        if (position != RecyclerView.NO_POSITION && mLongClickListener != null) {
+            mLongClickListener.onItemLongClick(v, position);
+            return true;
+        }
+        return false;
+    }
+
+    private RecyclerView.ViewHolder getHolder(View itemView) {
+        //getChildViewHolder只接受本列表的直接子视图，其他视图会抛出异常
+        if (itemView.getParent() != mRecyclerView) {
+            return null;
+        }
+        return mRecyclerView.getChildViewHolder(itemView);
+    }
+}
@@ -0,0 +1,16 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.view.ViewGroup;
+
+/**
+ * 某一种子视图类型的创建和绑定，通过 {@link RefreshAdapter#registerItemType(int, ItemViewDelegate)} 注册
+ */
+public interface ItemViewDelegate<VH extends BaseRecyclerViewHolder, T> {
+
+    VH onCreateHolder(ViewGroup parent);
+
+    /**
+     * @param position 数据的位置
+     */
+    void onBindHolder(VH holder, int position, T data);
+}
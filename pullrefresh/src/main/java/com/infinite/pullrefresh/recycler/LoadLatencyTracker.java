@@ -0,0 +1,173 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.infinite.pullrefresh.support.utils.Histogram;
+
+/**
+ * 统计一个页面中刷新和加载更多的耗时：从触发到 {@link RefreshAdapter#addData(boolean, java.util.List)} 返回数据，
+ * 以及从触发到新数据显示后的第一帧
+ * <p>
+ * 通过 {@link RefreshRecycleView#setLatencyTracker(LoadLatencyTracker)} 开启，默认不统计。
+ * 每个页面使用一个实例，耗时汇总在各个 {@link Histogram} 中，每次结束时回调 {@link Reporter}。
+ * 时间使用 {@link SystemClock#uptimeMillis()}，记录过程中不分配内存。只在主线程使用
+ */
+public class LoadLatencyTracker {
+
+    public static final int TRIGGER_AUTO_REFRESH = 0;  //autoRefresh
+    public static final int TRIGGER_SWIPE = 1;         //下拉刷新
+    public static final int TRIGGER_SCROLL = 2;        //滚动到末尾加载更多
+    public static final int TRIGGER_FOOTER_CLICK = 3;  //点击footer加载更多或重试
+
+    public interface Reporter {
+        /**
+         * 一次刷新或加载更多结束（新数据已经显示）
+         *
+         * @param tracker   所属页面
+         * @param refresh   是否为刷新
+         * @param trigger   触发方式，TRIGGER_XXX
+         * @param dataMs    触发到数据返回的时间
+         * @param displayMs 触发到新数据显示的时间
+         */
+        void onLoadFinished(LoadLatencyTracker tracker, boolean refresh, int trigger, long dataMs, long displayMs);
+    }
+
+    private final String mScreen;
+    private final Histogram mRefreshData = new Histogram();
+    private final Histogram mRefreshDisplay = new Histogram();
+    private final Histogram mLoadMoreData = new Histogram();
+    private final Histogram mLoadMoreDisplay = new Histogram();
+    private Reporter mReporter;
+
+    private int mTrigger = -1;  //-1表示没有进行中的加载
+    private boolean mRefresh;
+    private long mTriggerTime;
+    private long mDataTime;
+    private View mObservedView;
+
+    /**
+     * 新数据通知到RecyclerView后的第一次绘制
+     */
+    private final ViewTreeObserver.OnPreDrawListener mPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            stopObserving();
+            if (mTrigger >= 0 && mDataTime > 0) {
+                finish(SystemClock.uptimeMillis());
+            }
+            return true;
+        }
+    };
+
+    /**
+     * @param screen 页面名称，用于区分上报的数据
+     */
+    public LoadLatencyTracker(String screen) {
+        mScreen = screen;
+    }
+
+    public String getScreen() {
+        return mScreen;
+    }
+
+    public void setReporter(Reporter reporter) {
+        mReporter = reporter;
+    }
+
+    /**
+     * @return 刷新从触发到数据返回的时间（ms）
+     */
+    public Histogram getRefreshDataLatency() {
+        return mRefreshData;
+    }
+
+    /**
+     * @return 刷新从触发到新数据显示的时间（ms）
+     */
+    public Histogram getRefreshDisplayLatency() {
+        return mRefreshDisplay;
+    }
+
+    /**
+     * @return 加载更多从触发到数据返回的时间（ms）
+     */
+    public Histogram getLoadMoreDataLatency() {
+        return mLoadMoreData;
+    }
+
+    /**
+     * @return 加载更多从触发到新数据显示的时间（ms）
+     */
+    public Histogram getLoadMoreDisplayLatency() {
+        return mLoadMoreDisplay;
+    }
+
+    public void reset() {
+        mRefreshData.reset();
+        mRefreshDisplay.reset();
+        mLoadMoreData.reset();
+        mLoadMoreDisplay.reset();
+    }
+
+    /**
+     * 开始刷新或加载更多，之前没有结束的加载会被丢弃
+     */
+    void onTrigger(boolean refresh, int trigger) {
+        stopObserving();
+        mTrigger = trigger;
+        mRefresh = refresh;
+        mTriggerTime = SystemClock.uptimeMillis();
+        mDataTime = 0;
+    }
+
+    /**
+     * addData返回了数据
+     */
+    void onDataArrived(boolean refresh) {
+        if (mTrigger < 0 || mRefresh != refresh || mDataTime > 0) {
+            return;
+        }
+        mDataTime = SystemClock.uptimeMillis();
+        (refresh ? mRefreshData : mLoadMoreData).record(mDataTime - mTriggerTime);
+    }
+
+    /**
+     * 新数据已经通知给RecyclerView，等待下一帧
+     */
+    void onDataApplied(View view) {
+        if (mTrigger < 0 || mDataTime == 0) {
+            return;
+        }
+        stopObserving();
+        mObservedView = view;
+        view.getViewTreeObserver().addOnPreDrawListener(mPreDrawListener);
+    }
+
+    /**
+     * 加载失败，丢弃这次加载
+     */
+    void onCancel() {
+        stopObserving();
+        mTrigger = -1;
+    }
+
+    private void finish(long now) {
+        int trigger = mTrigger;
+        long dataMs = mDataTime - mTriggerTime;
+        long displayMs = now - mTriggerTime;
+        mTrigger = -1;
+        (mRefresh ? mRefreshDisplay : mLoadMoreDisplay).record(displayMs);
+        if (mReporter != null) {
+            mReporter.onLoadFinished(this, mRefresh, trigger, dataMs, displayMs);
+        }
+    }
+
+    private void stopObserving() {
+        if (mObservedView != null) {
+            mObservedView.getViewTreeObserver().removeOnPreDrawListener(mPreDrawListener);
+            mObservedView = null;
+        }
+    }
+}
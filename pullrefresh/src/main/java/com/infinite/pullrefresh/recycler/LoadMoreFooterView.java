@@ -0,0 +1,159 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.v4.view.ViewCompat;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+import com.infinite.pullrefresh.R;
+
+/**
+ * 默认的加载更多footer，代替view_recycler_load_more布局
+ * <p>
+ * 只有一个View，进度圈和提示文字都直接画在Canvas上，切换状态只需要重绘，
+ * 没有子视图的inflate、measure和layout。状态由 {@link StateRenderer} 设置
+ */
+public class LoadMoreFooterView extends View {
+
+    private static final int SPINNER_DURATION = 1000;  //进度圈转一圈的时间
+    private static final float SPINNER_SWEEP = 270;
+
+    private final TextPaint mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mSpinnerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF mSpinnerRect = new RectF();
+    private final int mHeight;
+    private final int mSpinnerSize;
+    private final int mSpinnerMargin;
+    private final String[] mTexts = new String[FooterStatusHandle.values().length];
+    private final float mLoadingTextWidth;
+
+    private FooterStatusHandle mStatus;
+    private boolean mContentVisible;
+
+    public LoadMoreFooterView(Context context) {
+        this(context, null);
+    }
+
+    public LoadMoreFooterView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public LoadMoreFooterView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mHeight = getResources().getDimensionPixelSize(R.dimen.dp48);
+        mSpinnerSize = dp(16);
+        mSpinnerMargin = dp(10);
+
+        TypedArray a = context.obtainStyledAttributes(new int[]{android.R.attr.textColorSecondary});
+        int color = a.getColor(0, Color.GRAY);
+        a.recycle();
+        mTextPaint.setColor(color);
+        mTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, getResources().getDisplayMetrics()));
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mSpinnerPaint.setColor(color);
+        mSpinnerPaint.setStyle(Paint.Style.STROKE);
+        mSpinnerPaint.setStrokeWidth(dp(2));
+        mSpinnerPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mTexts[FooterStatusHandle.TYPE_LOADING_MORE.ordinal()] = context.getString(R.string.string_recycler_loading);
+        mTexts[FooterStatusHandle.TYPE_PULL_LOAD_MORE.ordinal()] = context.getString(R.string.string_recycler_pull_to_load);
+        mTexts[FooterStatusHandle.TYPE_NO_MORE.ordinal()] = context.getString(R.string.string_recycler_no_more);
+        mTexts[FooterStatusHandle.TYPE_ERROR.ordinal()] = context.getString(R.string.string_recycler_load_failed);
+        mLoadingTextWidth = mTextPaint.measureText(mTexts[FooterStatusHandle.TYPE_LOADING_MORE.ordinal()]);
+    }
+
+    private int dp(float value) {
+        return (int) (TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics()) + 0.5f);
+    }
+
+    /**
+     * @return 当前显示的状态，没有显示任何内容时为null
+     */
+    public FooterStatusHandle getStatus() {
+        return mContentVisible ? mStatus : null;
+    }
+
+    void setContentVisible(boolean visible) {
+        if (mContentVisible != visible) {
+            mContentVisible = visible;
+            invalidate();
+        }
+    }
+
+    void setStatus(FooterStatusHandle status) {
+        if (mStatus != status) {
+            mStatus = status;
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(mHeight, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (!mContentVisible || mStatus == null) {
+            return;
+        }
+        float centerX = getWidth() / 2f;
+        float centerY = getHeight() / 2f;
+        float baseline = centerY - (mTextPaint.descent() + mTextPaint.ascent()) / 2f;
+        String text = mTexts[mStatus.ordinal()];
+        if (mStatus != FooterStatusHandle.TYPE_LOADING_MORE) {
+            canvas.drawText(text, centerX, baseline, mTextPaint);
+            return;
+        }
+        //进度圈和文字作为一行居中
+        float left = centerX - (mSpinnerSize + mSpinnerMargin + mLoadingTextWidth) / 2f;
+        float inset = mSpinnerPaint.getStrokeWidth() / 2f;
+        mSpinnerRect.set(left + inset, centerY - mSpinnerSize / 2f + inset,
+                left + mSpinnerSize - inset, centerY + mSpinnerSize / 2f - inset);
+        float startAngle = AnimationUtils.currentAnimationTimeMillis() % SPINNER_DURATION * 360f / SPINNER_DURATION;
+        canvas.drawArc(mSpinnerRect, startAngle, SPINNER_SWEEP, false, mSpinnerPaint);
+        canvas.drawText(text, left + mSpinnerSize + mSpinnerMargin + mLoadingTextWidth / 2f, baseline, mTextPaint);
+        //滚出屏幕被回收或者不可见时停止转动，重新显示时会重绘
+        if (isShown() && getWindowToken() != null) {
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * {@link LoadMoreFooterView} 的状态显示
+     */
+    public static class StateRenderer implements FooterStateRenderer {
+
+        private LoadMoreFooterView mView;
+
+        @Override
+        public void bind(View footer) {
+            mView = (LoadMoreFooterView) footer;
+        }
+
+        @Override
+        public void setContentVisibility(int visibility) {
+            if (mView != null) {
+                mView.setContentVisible(visibility == View.VISIBLE);
+            }
+        }
+
+        @Override
+        public void render(FooterStatusHandle status, boolean showNoMore) {
+            if (mView == null) {
+                return;
+            }
+            mView.setContentVisible(true);
+            mView.setStatus(status == FooterStatusHandle.TYPE_NO_MORE && !showNoMore ? null : status);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.infinite.pullrefresh.recycler;
+
+/**
+ * 分页数据源，列表滚动到距离末尾 prefetchDistance 个item以内时回调加载下一页，
+ * 数据返回后通过 {@link RefreshAdapter#addData(boolean, java.util.List)} 添加
+ * <p>
+ * 已加载的页全部保存在adapter的数据列表中，不会按距离丢弃：列表位置即数据位置，丢弃前面的页会改变
+ * 之后所有item的位置。数据量很大时请自行限制页数（例如不再返回更多），或通过刷新重新开始
+ */
+public interface PagedDataSource {
+    /**
+     * @param page 需要加载的页码，刷新得到的数据为第1页
+     */
+    void loadPage(int page);
+}
@@ -0,0 +1,141 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * 统计 RefreshRecycleView + RefreshAdapter 做了多少工作，用于对比优化前后的差异
+ * <p>
+ * 通过 {@link RefreshRecycleView#setWorkStats(RecyclerWorkStats)} 开启，默认不统计；
+ * 跑完一个场景（下拉刷新、连续加载更多、切换头部等）后调用 {@link #toJson()} 输出，再 {@link #reset()} 开始下一个场景。
+ * 只在主线程使用
+ */
+public class RecyclerWorkStats {
+
+    private int mHolderCreations;
+    private int mBinds;
+    private int mLayoutPasses;
+    private int mDataSetChanges;
+    private int mRangeUpdates;
+    private int mPagesLoaded;
+
+    final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            mDataSetChanges++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            mRangeUpdates++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mRangeUpdates++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mRangeUpdates++;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            mRangeUpdates++;
+        }
+    };
+
+    void onHolderCreated() {
+        mHolderCreations++;
+    }
+
+    void onBind() {
+        mBinds++;
+    }
+
+    void onLayout() {
+        mLayoutPasses++;
+    }
+
+    void onPageLoaded() {
+        mPagesLoaded++;
+    }
+
+    public void reset() {
+        mHolderCreations = 0;
+        mBinds = 0;
+        mLayoutPasses = 0;
+        mDataSetChanges = 0;
+        mRangeUpdates = 0;
+        mPagesLoaded = 0;
+    }
+
+    /**
+     * @return 创建ViewHolder的次数，包括头部和脚部
+     */
+    public int getHolderCreations() {
+        return mHolderCreations;
+    }
+
+    /**
+     * @return onBindViewHolder的次数
+     */
+    public int getBinds() {
+        return mBinds;
+    }
+
+    /**
+     * @return RecyclerView执行layout的次数
+     */
+    public int getLayoutPasses() {
+        return mLayoutPasses;
+    }
+
+    /**
+     * @return notifyDataSetChanged的次数
+     */
+    public int getDataSetChanges() {
+        return mDataSetChanges;
+    }
+
+    /**
+     * @return notifyItemRangeXxx/notifyItemMoved等局部更新的次数
+     */
+    public int getRangeUpdates() {
+        return mRangeUpdates;
+    }
+
+    /**
+     * @return 通过addData返回的页数，包括刷新
+     */
+    public int getPagesLoaded() {
+        return mPagesLoaded;
+    }
+
+    /**
+     * @return 例如 {"holderCreations":12,"binds":40,"layoutPasses":6,"dataSetChanges":1,"rangeUpdates":3,"pagesLoaded":4}
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        try {
+            json.put("holderCreations", mHolderCreations);
+            json.put("binds", mBinds);
+            json.put("layoutPasses", mLayoutPasses);
+            json.put("dataSetChanges", mDataSetChanges);
+            json.put("rangeUpdates", mRangeUpdates);
+            json.put("pagesLoaded", mPagesLoaded);
+        } catch (JSONException e) {
+            //key不为null、值为int时不会抛出
+            throw new AssertionError(e);
+        }
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+}
@@ -1,12 +1,21 @@
 package com.infinite.pullrefresh.recycler;
 
 
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.infinite.pullrefresh.support.utils.TraceSections;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 
 public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> extends RecyclerView.Adapter
@@ -15,13 +24,22 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
     protected OnRecyclerItemClickListener<T> mOnRecyclerViewItemClickListener;
     protected OnRecyclerItemLongClickListener<T> mOnRecyclerItemLongClickListener;
 
-    private final int TYPE_CONTENT = 1; // 内容类型
-    private final int TYPE_FOOTER = 2; // 底部加载更多
-    private final int TYPE_HEADER = 3; // 头部
-    private List<Integer> mViewTypes; // 子视图类型
+    static final int TYPE_CONTENT = 1; // 内容类型
+    static final int TYPE_FOOTER = 2; // 底部加载更多
+    static final int TYPE_HEADER = 3; // 头部
+    private SparseArray<ItemViewDelegate> mViewTypes; // 子视图类型，值为null时使用onCreateHolder/onBindHolder
+    private boolean mHeaderFooterValid = false;  //头部、脚部是否显示的缓存是否有效
+    private final HeaderFooterPositions mPositions = new HeaderFooterPositions();
     protected List<T> mDataContainer;  //数据容器
     private int mPageSize = 20;  //默认分页大小
 
+    private static Executor sDiffExecutor;
+    private Handler mMainHandler;
+    private boolean mDiffRefreshEnabled = false;  //刷新时是否使用diff局部更新
+    private int mRefreshVersion;  //每次刷新+1，用于丢弃过期的diff结果
+    private List<T> mPendingRefreshData;  //正在计算diff的刷新数据
+    private ItemClickDispatcher mClickDispatcher;  //所有item共用的点击分发
+
 
     public RefreshAdapter(List<T> list, RefreshRecycleView refreshView) {
         this(list, refreshView, 20);
@@ -36,39 +54,88 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
         this.mRecycleView = refreshView;
         mDataContainer = list;
         mPageSize = pageSize;
-        mViewTypes = new ArrayList<>();
+        mViewTypes = new SparseArray<>();
     }
 
     @Override
     public BaseRecyclerViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        if (viewType == TYPE_CONTENT || mViewTypes.contains(viewType)) {
-            VH vh = onCreateHolder(parent, viewType);
-            vh.setItemClickListener(this);
-            vh.setItemLongClickListener(this);
+        TraceSections trace = mRecycleView.mTrace;
+        if (trace == null) {
+            return createHolder(parent, viewType);
+        }
+        trace.begin(RefreshRecycleView.TRACE_CREATE_HOLDER);
+        try {
+            return createHolder(parent, viewType);
+        } finally {
+            trace.end();
+        }
+    }
+
+    private BaseRecyclerViewHolder createHolder(ViewGroup parent, int viewType) {
+        if (mRecycleView.mWorkStats != null) {
+            mRecycleView.mWorkStats.onHolderCreated();
+        }
+        int index = mViewTypes.indexOfKey(viewType);
+        if (viewType == TYPE_CONTENT || index >= 0) {
+            ItemViewDelegate delegate = index >= 0 ? mViewTypes.valueAt(index) : null;
+            BaseRecyclerViewHolder vh = delegate != null ? delegate.onCreateHolder(parent) : onCreateHolder(parent, viewType);
+            installClickDispatcher(vh);
             return vh;
         } else if (viewType == TYPE_HEADER && isHeaderVisible()) {
             mRecycleView.setFullSpan(mRecycleView.getHeader());
-            return new BaseRecyclerViewHolder(mRecycleView.getHeader()) {
-            };
+            return new BaseRecyclerViewHolder.FixedViewHolder(mRecycleView.getHeader());
         } else if (viewType == TYPE_FOOTER && isFooterVisible()) {
             mRecycleView.setFullSpan(mRecycleView.getFooter());
-            return new BaseRecyclerViewHolder(mRecycleView.getFooter()) {
-            };
+            return new BaseRecyclerViewHolder.FixedViewHolder(mRecycleView.getFooter());
         }
         return null;
     }
 
     @Override
     public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        TraceSections trace = mRecycleView.mTrace;
+        if (trace == null) {
+            bindHolder(holder, position);
+            return;
+        }
+        trace.begin(RefreshRecycleView.TRACE_BIND_HOLDER);
+        try {
+            bindHolder(holder, position);
+        } finally {
+            trace.end();
+        }
+    }
+
+    private void bindHolder(RecyclerView.ViewHolder holder, int position) {
+        if (mRecycleView.mWorkStats != null) {
+            mRecycleView.mWorkStats.onBind();
+        }
         if (getItemCount() > 0) {
             int viewType = this.getItemViewType(position);
-            if (viewType == TYPE_CONTENT || mViewTypes.contains(viewType)) {
-                int p = isHeaderVisible() ? (holder.getLayoutPosition() - 1) : holder.getLayoutPosition();
-                onBindHolder((VH) holder, p, mDataContainer.get(p));
+            int index = mViewTypes.indexOfKey(viewType);
+            if (viewType == TYPE_CONTENT || index >= 0) {
+                int p = positions().getDataPosition(position);
+                if (mClickDispatcher != null) {
+                    //监听在ViewHolder创建之后才设置时补上，已经设置过的不会重复设置
+                    installClickDispatcher((BaseRecyclerViewHolder) holder);
+                }
+                ItemViewDelegate delegate = index >= 0 ? mViewTypes.valueAt(index) : null;
+                if (delegate != null) {
+                    delegate.onBindHolder((BaseRecyclerViewHolder) holder, p, mDataContainer.get(p));
+                } else {
+                    onBindHolder((VH) holder, p, mDataContainer.get(p));
+                }
             }
         }
     }
 
+    /**
+     * @return 是否为内容的子视图类型（不是头部和脚部）
+     */
+    boolean isContentType(int viewType) {
+        return viewType == TYPE_CONTENT || mViewTypes.indexOfKey(viewType) >= 0;
+    }
+
     /**
      * 没有特殊情况时子类请勿重写此方法！！！
      *
@@ -76,14 +143,13 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
      */
     @Override
     public int getItemCount() {
-        int count = mDataContainer.size();
-        if (isHeaderVisible()) {
-            count += 1;
-        }
-        if (isFooterVisible()) {
-            count += 1;
-        }
-        return count;
+        //每次布局都会调用，这里重新读取头部、脚部的可见性并写回位置映射缓存：
+        //getHeader()、getFooter()、两次getVisibility()加两次赋值，都是不分配内存的方法调用。
+        //不能只依赖invalidateHeaderFooter()，脚部渲染器（如DefaultFooterStateRenderer）
+        //会直接改变脚部根视图的可见性，直接调用getHeader().setVisibility()时也一样，
+        //这样下一次布局时位置映射也会更新
+        updateHeaderFooter();
+        return mPositions.getItemCount(mDataContainer.size());
     }
 
     /**
@@ -93,12 +159,13 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
      */
     @Override
     public int getItemViewType(int position) {
-        if (position == 0 && isHeaderVisible()) {
+        HeaderFooterPositions positions = positions();
+        if (positions.isHeader(position)) {
             return TYPE_HEADER;
-        } else if ((position == (getItemCount() - 1)) && isFooterVisible()) {
+        } else if (positions.isFooter(position, mDataContainer.size())) {
             return TYPE_FOOTER;
         } else {
-            return getItemType(isHeaderVisible() ? (position - 1) : position);
+            return getItemType(positions.getDataPosition(position));
         }
     }
 
@@ -119,10 +186,21 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
      */
     public void setItemTypes(List<Integer> viewTypes) {
         if (viewTypes != null) {
-            this.mViewTypes.addAll(viewTypes);
+            for (int i = 0, size = viewTypes.size(); i < size; i++) {
+                this.mViewTypes.put(viewTypes.get(i), null);
+            }
         }
     }
 
+    /**
+     * 注册子视图类型及其创建、绑定方法，该类型不再调用onCreateHolder/onBindHolder
+     *
+     * @param viewType 每个类型的值都要>3, 且不能重复；与其他列表共用RecycledViewPool时，在这些adapter之间也不能重复
+     */
+    public void registerItemType(int viewType, ItemViewDelegate<? extends BaseRecyclerViewHolder, T> delegate) {
+        this.mViewTypes.put(viewType, delegate);
+    }
+
     /**
      * 自定义获取子视图类型的方法，如果有多种itemType，请重写此方法，在onBindHolder使用getItemType(int position)方法获得itemType
      * <p>
@@ -144,14 +222,37 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
      * @param newDataList 新数据
      */
     public void addData(boolean isRefresh, List<T> newDataList) {
+        TraceSections trace = mRecycleView.mTrace;
+        if (trace == null) {
+            applyData(isRefresh, newDataList);
+            return;
+        }
+        trace.begin(RefreshRecycleView.TRACE_ADD_DATA);
+        try {
+            applyData(isRefresh, newDataList);
+        } finally {
+            trace.end();
+        }
+    }
+
+    private void applyData(boolean isRefresh, List<T> newDataList) {
         if (mDataContainer == null) {
             throw new NullPointerException("the mDataContainer not allowed null!!!");
         }
         if (mRecycleView.isRefreshing()) {
             mRecycleView.setRefreshing(false);
         }
+        mRecycleView.onPageLoaded(isRefresh);
         if (isRefresh) {
+            mRefreshVersion++;
+            mPendingRefreshData = null;
+            if (mDiffRefreshEnabled) {
+                refreshWithDiff(newDataList);
+                return;
+            }
             mDataContainer.clear();
+        } else {
+            flushPendingRefresh();
         }
         if (newDataList != null && newDataList.size() > 0) {
             mDataContainer.addAll(newDataList);
@@ -164,6 +265,134 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
         if (mRecycleView.isLoadMoreEnable()) {
             mRecycleView.setFooterHasMore(newDataList != null && newDataList.size() == mPageSize);
         }
+        mRecycleView.onPageApplied();
+    }
+
+    /**
+     * 刷新时是否在后台线程计算新旧数据的差异，只通知变化的部分，
+     * 开启后请按需重写 {@link #areItemsTheSame(Object, Object)} 和 {@link #areContentsTheSame(Object, Object)}
+     *
+     * @param enabled 默认false，刷新时调用notifyDataSetChanged
+     */
+    public void setDiffRefreshEnabled(boolean enabled) {
+        mDiffRefreshEnabled = enabled;
+    }
+
+    /**
+     * 是否为同一条数据（例如id相同），默认使用equals
+     */
+    protected boolean areItemsTheSame(T oldItem, T newItem) {
+        return oldItem == null ? newItem == null : oldItem.equals(newItem);
+    }
+
+    /**
+     * 同一条数据的内容是否没有变化，默认使用equals
+     */
+    protected boolean areContentsTheSame(T oldItem, T newItem) {
+        return oldItem == null ? newItem == null : oldItem.equals(newItem);
+    }
+
+    private void refreshWithDiff(List<T> newDataList) {
+        final int version = mRefreshVersion;
+        final List<T> oldList = new ArrayList<>(mDataContainer);
+        final List<T> newList = newDataList == null ? new ArrayList<T>() : new ArrayList<T>(newDataList);
+        final boolean hasMore = newDataList != null && newDataList.size() == mPageSize;
+        mPendingRefreshData = newList;
+        if (mMainHandler == null) {
+            mMainHandler = new Handler(Looper.getMainLooper());
+        }
+        getDiffExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return RefreshAdapter.this.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return RefreshAdapter.this.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                });
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (version != mRefreshVersion || mPendingRefreshData != newList) {
+                            //已经有更新的刷新，丢弃
+                            return;
+                        }
+                        mPendingRefreshData = null;
+                        mDataContainer.clear();
+                        mDataContainer.addAll(newList);
+                        result.dispatchUpdatesTo(mUpdateCallback);
+                        if (mRecycleView.isLoadMoreEnable()) {
+                            mRecycleView.setFooterHasMore(hasMore);
+                        }
+                        mRecycleView.onPageApplied();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 刷新的diff还没算完就加载了更多，直接应用刷新的数据
+     */
+    private void flushPendingRefresh() {
+        if (mPendingRefreshData != null) {
+            mRefreshVersion++;
+            mDataContainer.clear();
+            mDataContainer.addAll(mPendingRefreshData);
+            mPendingRefreshData = null;
+            notifyDataSetChanged();
+        }
+    }
+
+    private static synchronized Executor getDiffExecutor() {
+        if (sDiffExecutor == null) {
+            sDiffExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sDiffExecutor;
+    }
+
+    /**
+     * diff结果中的位置是数据的位置，需要加上头部
+     */
+    private final ListUpdateCallback mUpdateCallback = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position + getHeaderCount(), count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position + getHeaderCount(), count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition + getHeaderCount(), toPosition + getHeaderCount());
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position + getHeaderCount(), count, payload);
+        }
+    };
+
+    private int getHeaderCount() {
+        return positions().getHeaderCount();
     }
 
     public T getItemData(int position) {
@@ -192,7 +421,36 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
     }
 
     /**
-     * Item的点击事件
+     * 只有通过 {@link #setOnRecyclerItemClickListener} / {@link #setOnRecyclerItemLongClickListener} 注册了监听时，
+     * 才在item根视图上设置对应的监听，否则保留ViewHolder自己设置的监听
+     */
+    private void installClickDispatcher(BaseRecyclerViewHolder holder) {
+        boolean click = mOnRecyclerViewItemClickListener != null;
+        boolean longClick = mOnRecyclerItemLongClickListener != null;
+        if (click || longClick) {
+            holder.setClickDispatcher(getClickDispatcher(), click, longClick);
+        }
+    }
+
+    private ItemClickDispatcher getClickDispatcher() {
+        if (mClickDispatcher == null) {
+            mClickDispatcher = new ItemClickDispatcher(mRecycleView.getRecycleView(), this, this);
+        }
+        return mClickDispatcher;
+    }
+
+    /**
+     * 设置防止快速点击的方式
+     *
+     * @param mode         {@link ItemClickDispatcher#DEBOUNCE_PER_VIEW} 或 {@link ItemClickDispatcher#DEBOUNCE_GLOBAL}
+     * @param debounceTime 间隔（ms），默认500
+     */
+    public void setClickDebounce(int mode, long debounceTime) {
+        getClickDispatcher().setDebounce(mode, debounceTime);
+    }
+
+    /**
+     * Item的点击事件，设置后item根视图的点击由adapter统一分发，会替换ViewHolder自己设置在根视图上的点击监听
      *
      * @param onRecyclerViewItemClickListener
      */
@@ -234,17 +492,44 @@ public abstract class RefreshAdapter<VH extends BaseRecyclerViewHolder, T> exten
 
     /*header是否存在或者是否显示了*/
     public boolean isHeaderVisible() {
-        return (mRecycleView.getHeader() != null) && (mRecycleView.getHeader().getVisibility() == View.VISIBLE);
+        return positions().isHeaderVisible();
     }
 
     /*footer是否存在或者是否显示了*/
     public boolean isFooterVisible() {
-        return mRecycleView.getFooter() != null && mRecycleView.getFooter().getVisibility() == View.VISIBLE;
+        return positions().isFooterVisible();
+    }
+
+    /**
+     * 头部、脚部改变后由RefreshRecycleView调用，立即更新位置映射。
+     * 直接改变头部、脚部视图的可见性时，位置映射在下一次 {@link #getItemCount()} 时更新，
+     * 同时需要自行通知adapter刷新
+     */
+    void invalidateHeaderFooter() {
+        mHeaderFooterValid = false;
+    }
+
+    /**
+     * @return 位置映射，头部、脚部的可见性已经更新
+     */
+    private HeaderFooterPositions positions() {
+        if (!mHeaderFooterValid) {
+            updateHeaderFooter();
+        }
+        return mPositions;
+    }
+
+    private void updateHeaderFooter() {
+        View header = mRecycleView.getHeader();
+        View footer = mRecycleView.getFooter();
+        mPositions.setHeaderVisible(header != null && header.getVisibility() == View.VISIBLE);
+        mPositions.setFooterVisible(footer != null && footer.getVisibility() == View.VISIBLE);
+        mHeaderFooterValid = true;
     }
 
     /*获取data的position*/
     public int getDataPosition(int layoutPosition) {
-        return isHeaderVisible() ? (layoutPosition - 1) : layoutPosition;
+        return positions().getDataPosition(layoutPosition);
     }
 }
 
@@ -1,6 +1,8 @@
 package com.infinite.pullrefresh.recycler;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.v4.widget.SwipeRefreshLayout;
 import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
@@ -13,8 +15,11 @@ import android.view.View;
 import android.view.ViewConfiguration;
 
 import com.infinite.pullrefresh.R;
+import com.infinite.pullrefresh.support.utils.TraceSections;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 
 import static android.support.v7.widget.RecyclerView.LayoutManager;
 import static com.infinite.pullrefresh.recycler.FooterStatusHandle.TYPE_LOADING_MORE;
@@ -34,7 +39,23 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
     private boolean mShowFooter = true;      //是否显示Footer
     private View mHeader, mFooter;             // 头部和脚部
     private FooterStatusHandle mFooterStatus;  //Footer状态
+    private FooterStateRenderer mFooterRenderer;  //Footer状态显示
     private LayoutManager mLayoutManager;
+    private PagedDataSource mPagedDataSource;
+    private int mPrefetchDistance = 0;  //距离末尾多少个item时开始加载下一页
+    private int mNextPage = 2;          //下一页的页码
+    private int[] mSpanPositions;       //瀑布流查找最后位置时复用
+    private boolean mItemPrefetchEnabled = true;  //LayoutManager是否在空闲时预取item
+    RecyclerWorkStats mWorkStats;        //工作量统计，为null时不统计
+    private LoadLatencyTracker mLatencyTracker;  //刷新和加载更多的耗时统计，为null时不统计
+    TraceSections mTrace;                //systrace区段，为null时不记录
+    static final int TRACE_CREATE_HOLDER = 0;
+    static final int TRACE_BIND_HOLDER = 1;
+    static final int TRACE_ADD_DATA = 2;
+    static final int TRACE_REFRESH_FOOTER = 3;
+
+    private static final int DEFAULT_MAX_SCRAP = 5;  //RecycledViewPool每种类型默认缓存的数量
+    private List<MessageQueue.IdleHandler> mPreInflateHandlers;  //未完成的预创建任务，detach时移除
 
     public RefreshRecycleView(Context context) {
         this(context, null);
@@ -61,9 +82,82 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
 
 
     public void setAdapter(RefreshAdapter adapter) {
+        RefreshAdapter old = getAdapter();
+        if (mWorkStats != null && old != null) {
+            old.unregisterAdapterDataObserver(mWorkStats.mObserver);
+        }
+        if (adapter != null) {
+            adapter.invalidateHeaderFooter();
+            if (mWorkStats != null) {
+                adapter.registerAdapterDataObserver(mWorkStats.mObserver);
+            }
+        }
         mRecycleView.setAdapter(adapter);
     }
 
+    /**
+     * 开启或关闭工作量统计：ViewHolder创建、绑定、layout次数、notifyDataSetChanged次数等
+     *
+     * @param stats 为null时关闭
+     */
+    public void setWorkStats(RecyclerWorkStats stats) {
+        RefreshAdapter adapter = getAdapter();
+        if (adapter != null) {
+            if (mWorkStats != null) {
+                adapter.unregisterAdapterDataObserver(mWorkStats.mObserver);
+            }
+            if (stats != null) {
+                adapter.registerAdapterDataObserver(stats.mObserver);
+            }
+        }
+        mWorkStats = stats;
+    }
+
+    public RecyclerWorkStats getWorkStats() {
+        return mWorkStats;
+    }
+
+    /**
+     * 开启或关闭刷新和加载更多的耗时统计
+     *
+     * @param tracker 为null时关闭
+     */
+    public void setLatencyTracker(LoadLatencyTracker tracker) {
+        if (mLatencyTracker != null) {
+            mLatencyTracker.onCancel();
+        }
+        mLatencyTracker = tracker;
+    }
+
+    public LoadLatencyTracker getLatencyTracker() {
+        return mLatencyTracker;
+    }
+
+    /**
+     * 开启systrace区段：RefreshAdapter的onCreateViewHolder、onBindViewHolder、addData以及refreshFooter，
+     * 区段名称为"tag:阶段"，多个列表用不同的tag区分
+     *
+     * @param tag 为null时关闭
+     */
+    public void setTraceTag(String tag) {
+        mTrace = tag == null ? null : new TraceSections(tag,
+                "onCreateViewHolder", "onBindViewHolder", "addData", "refreshFooter");
+    }
+
+    private void invalidateHeaderFooter() {
+        RefreshAdapter adapter = getAdapter();
+        if (adapter != null) {
+            adapter.invalidateHeaderFooter();
+        }
+        LayoutManager manager = getLayoutManager();
+        if (manager instanceof GridLayoutManager) {
+            GridLayoutManager.SpanSizeLookup lookup = ((GridLayoutManager) manager).getSpanSizeLookup();
+            if (lookup instanceof HeaderFooterSpanLookup) {
+                ((HeaderFooterSpanLookup) lookup).invalidate();
+            }
+        }
+    }
+
     public RefreshAdapter getAdapter() {
         return (RefreshAdapter) mRecycleView.getAdapter();
     }
@@ -71,17 +165,18 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
     public void setLayoutManager(final LayoutManager manager) {
         mLayoutManager = manager;
         if (mLayoutManager instanceof GridLayoutManager) {
-            ((GridLayoutManager) mLayoutManager).setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
-                @Override
-                public int getSpanSize(int position) {
-                    return getAdapter().isFooter(position) || getAdapter().isHeader(position) ?
-                            ((GridLayoutManager) mLayoutManager).getSpanCount() : 1;
-                }
-            });
+            GridLayoutManager gridManager = (GridLayoutManager) mLayoutManager;
+            // 已经设置了自定义的HeaderFooterSpanLookup（例如GridStaggerLookup）时保留
+            if (!(gridManager.getSpanSizeLookup() instanceof HeaderFooterSpanLookup)) {
+                gridManager.setSpanSizeLookup(new HeaderFooterSpanLookup(this));
+            }
         }
 
+        mLayoutManager.setItemPrefetchEnabled(mItemPrefetchEnabled);
         mRecycleView.setLayoutManager(mLayoutManager);
-        initDefaultFooter();
+        if (mLoadMoreEnable && mFooter == null) {
+            initDefaultFooter();
+        }
     }
 
 
@@ -89,6 +184,95 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
         return mRecycleView.getLayoutManager();
     }
 
+    /**
+     * 多个列表（例如同一个Activity中的多个tab）共用一个缓存池，传null恢复为自己的缓存池
+     * <p>
+     * 缓存池持有ViewHolder及其Context，由调用方控制范围，例如每个Activity一个，不要放在静态变量中；
+     * 共用缓存池的adapter之间，内容的子视图类型必须唯一，相同类型的ViewHolder必须是同一个类。
+     * 头部和脚部是每个列表自己的View，不会放入共用的缓存池
+     */
+    public void setRecycledViewPool(RecyclerView.RecycledViewPool pool) {
+        if (pool != null) {
+            pool.setMaxRecycledViews(RefreshAdapter.TYPE_HEADER, 0);
+            pool.setMaxRecycledViews(RefreshAdapter.TYPE_FOOTER, 0);
+        }
+        mRecycleView.setRecycledViewPool(pool);
+    }
+
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return mRecycleView.getRecycledViewPool();
+    }
+
+    /**
+     * 设置某种子视图类型最多缓存多少个ViewHolder
+     */
+    public void setMaxRecycledViews(int viewType, int max) {
+        getRecycledViewPool().setMaxRecycledViews(viewType, max);
+    }
+
+    /**
+     * LayoutManager是否在空闲时预取即将显示的item，默认开启
+     */
+    public void setItemPrefetchEnabled(boolean enabled) {
+        mItemPrefetchEnabled = enabled;
+        if (mLayoutManager != null) {
+            mLayoutManager.setItemPrefetchEnabled(enabled);
+        }
+    }
+
+    /**
+     * 在主线程空闲时预先创建ViewHolder放入缓存池，每次空闲只创建一个，
+     * 避免首次滑动时集中inflate造成卡顿。需要先设置adapter
+     *
+     * @param viewType 内容的子视图类型，头部和脚部会被忽略
+     * @param count    需要预先创建的数量
+     */
+    public void preInflate(final int viewType, final int count) {
+        final RefreshAdapter adapter = getAdapter();
+        if (adapter == null || count <= 0 || !adapter.isContentType(viewType)) {
+            return;
+        }
+        if (count > DEFAULT_MAX_SCRAP) {
+            setMaxRecycledViews(viewType, count);
+        }
+        MessageQueue.IdleHandler handler = new MessageQueue.IdleHandler() {
+            private int mCreated = 0;
+
+            @Override
+            public boolean queueIdle() {
+                if (getAdapter() != adapter) {
+                    mPreInflateHandlers.remove(this);
+                    return false;
+                }
+                RecyclerView.ViewHolder holder = adapter.createViewHolder(mRecycleView, viewType);
+                getRecycledViewPool().putRecycledView(holder);
+                if (++mCreated < count) {
+                    return true;
+                }
+                mPreInflateHandlers.remove(this);
+                return false;
+            }
+        };
+        if (mPreInflateHandlers == null) {
+            mPreInflateHandlers = new ArrayList<>();
+        }
+        mPreInflateHandlers.add(handler);
+        Looper.myQueue().addIdleHandler(handler);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // 预创建任务持有adapter和Context，离开窗口后不再需要
+        if (mPreInflateHandlers != null && !mPreInflateHandlers.isEmpty()) {
+            MessageQueue queue = Looper.myQueue();
+            for (MessageQueue.IdleHandler handler : mPreInflateHandlers) {
+                queue.removeIdleHandler(handler);
+            }
+            mPreInflateHandlers.clear();
+        }
+    }
+
     @Override
     public boolean onStartNestedScroll(View child, View target, int nestedScrollAxes) {
         return !isRefreshing() && super.onStartNestedScroll(child, target, nestedScrollAxes);
@@ -116,6 +300,8 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
         mLoadMoreEnable = loadMoreEnable;
         if (!loadMoreEnable) {
             mFooter = null;
+            mFooterRenderer = null;
+            invalidateHeaderFooter();
         } else {
             if (mFooter == null) {
                 initDefaultFooter();
@@ -161,14 +347,97 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
     @Override
     public void setOnRefreshListener(OnRefreshListener listener) {
         mOnRefreshListener = listener;
-        super.setOnRefreshListener(mOnRefreshListener);
+        super.setOnRefreshListener(listener == null ? null : mSwipeRefreshListener);
     }
 
+    /**
+     * 下拉触发的刷新，先记录再转给mOnRefreshListener
+     */
+    private final OnRefreshListener mSwipeRefreshListener = new OnRefreshListener() {
+        @Override
+        public void onRefresh() {
+            if (mLatencyTracker != null) {
+                mLatencyTracker.onTrigger(true, LoadLatencyTracker.TRIGGER_SWIPE);
+            }
+            if (mOnRefreshListener != null) {
+                mOnRefreshListener.onRefresh();
+            }
+        }
+    };
+
     /**
      * 设置加载更多监听
      */
-    public void setOnLoadMoreListener(OnLoadMoreListener listener) {
+    public void setOnLoadMoreListener(final OnLoadMoreListener listener) {
         mOnLoadMoreListener = listener;
+        if (listener == null) {
+            mPagedDataSource = null;
+        } else {
+            mPagedDataSource = new PagedDataSource() {
+                @Override
+                public void loadPage(int page) {
+                    listener.onLoadMore();
+                }
+            };
+        }
+    }
+
+    /**
+     * 设置分页数据源，会替换OnLoadMoreListener
+     */
+    public void setPagedDataSource(PagedDataSource dataSource) {
+        mOnLoadMoreListener = null;
+        mPagedDataSource = dataSource;
+    }
+
+    /**
+     * 设置预加载距离，滚动到距离末尾distance个item以内时就开始加载下一页，不必等到停止滚动
+     *
+     * @param distance 默认0，即最后一个item可见时才加载
+     */
+    public void setPrefetchDistance(int distance) {
+        mPrefetchDistance = Math.max(0, distance);
+    }
+
+    /**
+     * 数据返回，由RefreshAdapter调用
+     */
+    void onPageLoaded(boolean isRefresh) {
+        mNextPage = isRefresh ? 2 : mNextPage + 1;
+        if (mWorkStats != null) {
+            mWorkStats.onPageLoaded();
+        }
+        if (mLatencyTracker != null) {
+            mLatencyTracker.onDataArrived(isRefresh);
+        }
+    }
+
+    /**
+     * 返回的数据已经通知给RecyclerView，由RefreshAdapter调用
+     */
+    void onPageApplied() {
+        if (mLatencyTracker != null) {
+            mLatencyTracker.onDataApplied(mRecycleView);
+        }
+    }
+
+    /**
+     * 满足条件时加载下一页
+     *
+     * @param distance 距离末尾多少个item以内时加载
+     */
+    private void tryLoadMore(int distance) {
+        if (mCanLoadMore
+                && mPagedDataSource != null  // 可以加载更多, 且有加载监听
+                && (mFooterStatus == null || mFooterStatus.canAutoLoad())
+                && !isRefreshing()
+                && findLastVisibleItemPosition() >= getLayoutManager().getItemCount() - 1 - distance) {
+            setFooterStatus(TYPE_LOADING_MORE);
+            if (mLatencyTracker != null) {
+                mLatencyTracker.onTrigger(false, LoadLatencyTracker.TRIGGER_SCROLL);
+            }
+            mPagedDataSource.loadPage(mNextPage); // 执行加载更多
+        }
     }
 
     public interface OnLoadMoreListener {
@@ -195,6 +464,9 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
             public void run() {
                 if (!mRecycleView.mIsLoadMore && !isRefreshing()) {
                     setRefreshing(true);
+                    if (mLatencyTracker != null) {
+                        mLatencyTracker.onTrigger(true, LoadLatencyTracker.TRIGGER_AUTO_REFRESH);
+                    }
                     mOnRefreshListener.onRefresh();
                 }
             }
@@ -202,8 +474,8 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
     }
 
     private void setFooterVisiable(int visiable) {
-        if (mFooter != null) {
-            mFooter.findViewById(R.id.ll_root).setVisibility(visiable);
+        if (mFooterRenderer != null) {
+            mFooterRenderer.setContentVisibility(visiable);
         }
     }
 
@@ -224,70 +496,32 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
             throw new NullPointerException("-----mRecycleView is null!!!");
         }
         mFooterStatus = type;
-        switch (type) {
-            case TYPE_PULL_LOAD_MORE:
-                mRecycleView.mIsLoadMore = false;
-                mCanLoadMore = true;
-                break;
-            case TYPE_LOADING_MORE:
-                mRecycleView.mIsLoadMore = true;
-                mCanLoadMore = true;
-                break;
-            case TYPE_ERROR:
-                mRecycleView.mIsLoadMore = false;
-                mCanLoadMore = true;
-                break;
-            case TYPE_NO_MORE:
-                mRecycleView.mIsLoadMore = false;
-                mCanLoadMore = false;
-                break;
+        if (type == FooterStatusHandle.TYPE_ERROR && mLatencyTracker != null) {
+            mLatencyTracker.onCancel();
         }
+        mRecycleView.mIsLoadMore = type.isLoading();
+        mCanLoadMore = type.canLoadMore();
         refreshFooter(type);
-        this.setRefreshEnable(type != TYPE_LOADING_MORE);
+        this.setRefreshEnable(!type.isLoading());
         if (this.isRefreshing()) {
             this.setRefreshing(false);
         }
     }
 
     private void refreshFooter(FooterStatusHandle type) {
-        if (mCanLoadMore) {
-            if (getFooter() != null) {
-                getFooter().findViewById(R.id.ll_root).setVisibility(VISIBLE);
-                if (type == FooterStatusHandle.TYPE_PULL_LOAD_MORE) {
-                    getFooter().findViewById(R.id.ll_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_no_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_pull_load_more).setVisibility(VISIBLE);
-                    getFooter().findViewById(R.id.tv_error).setVisibility(GONE);
-                    return;
-                }
-
-                if (type == TYPE_LOADING_MORE) {
-                    getFooter().findViewById(R.id.ll_more).setVisibility(VISIBLE);
-                    getFooter().findViewById(R.id.tv_no_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_pull_load_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_error).setVisibility(GONE);
-                    return;
-                }
-
-                if (type == FooterStatusHandle.TYPE_ERROR) {
-                    getFooter().findViewById(R.id.ll_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_no_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_pull_load_more).setVisibility(GONE);
-                    getFooter().findViewById(R.id.tv_error).setVisibility(VISIBLE);
-                }
-            }
-        } else {
-            if (getFooter() != null) {
-                getFooter().findViewById(R.id.ll_root).setVisibility(VISIBLE);
-                getFooter().findViewById(R.id.ll_more).setVisibility(GONE);
-                getFooter().findViewById(R.id.tv_pull_load_more).setVisibility(GONE);
-                getFooter().findViewById(R.id.tv_error).setVisibility(GONE);
-                if (getShowFooterWithNoMore()) {
-                    getFooter().findViewById(R.id.tv_no_more).setVisibility(VISIBLE);
-                } else {
-                    getFooter().findViewById(R.id.tv_no_more).setVisibility(GONE);
-                }
-            }
+        if (mFooterRenderer == null) {
+            return;
+        }
+        TraceSections trace = mTrace;
+        if (trace == null) {
+            mFooterRenderer.render(type.displayed(mCanLoadMore), getShowFooterWithNoMore());
+            return;
+        }
+        trace.begin(TRACE_REFRESH_FOOTER);
+        try {
+            mFooterRenderer.render(type.displayed(mCanLoadMore), getShowFooterWithNoMore());
+        } finally {
+            trace.end();
         }
     }
 
@@ -299,6 +533,7 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
      */
     public void setHeader(View header) {
         this.mHeader = header;
+        invalidateHeaderFooter();
     }
 
     /**
@@ -306,6 +541,7 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
      */
     public void setHeader(int resId) {
         this.mHeader = LayoutInflater.from(getContext()).inflate(resId, mRecycleView, false);
+        invalidateHeaderFooter();
     }
 
     public View getHeader() {
@@ -317,13 +553,32 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
      */
     public void removeHeader() {
         this.mHeader = null;
+        invalidateHeaderFooter();
     }
 
     /**
-     * 添加脚部
+     * 添加脚部，子视图id与view_recycler_load_more相同时可以显示加载状态
      */
     public void setFooter(View footer) {
+        setFooter(footer, footer instanceof LoadMoreFooterView
+                ? new LoadMoreFooterView.StateRenderer() : new DefaultFooterStateRenderer());
+    }
+
+    /**
+     * 添加自定义脚部
+     *
+     * @param renderer 负责显示footer的各种状态
+     */
+    public void setFooter(View footer, FooterStateRenderer renderer) {
         this.mFooter = footer;
+        this.mFooterRenderer = footer == null ? null : renderer;
+        invalidateHeaderFooter();
+        if (mFooterRenderer != null) {
+            mFooterRenderer.bind(footer);
+            if (mFooterStatus != null) {
+                refreshFooter(mFooterStatus);
+            }
+        }
     }
 
 
@@ -337,6 +592,7 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
             int newVisible = visible ? VISIBLE : GONE;
             if (oldVisible != newVisible) {
                 mHeader.setVisibility(newVisible);
+                invalidateHeaderFooter();
                 getAdapter().notifyDataSetChanged();
             }
         }
@@ -352,6 +608,7 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
             int newVisible = visible ? VISIBLE : GONE;
             if (oldVisible != newVisible) {
                 mFooter.setVisibility(newVisible);
+                invalidateHeaderFooter();
                 getAdapter().notifyDataSetChanged();
             }
         }
@@ -361,33 +618,66 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
      * 添加脚部
      */
     public void setFooter(int resId) {
-        this.mFooter = LayoutInflater.from(getContext()).inflate(resId, mRecycleView, false);
+        setLoadMoreFooter(LayoutInflater.from(getContext()).inflate(resId, mRecycleView, false));
+    }
+
+    /**
+     * 设置与view_recycler_load_more结构相同的footer，并处理点击
+     */
+    private void setLoadMoreFooter(View footer) {
+        setFooter(footer);
         mFooter.findViewById(R.id.tv_error).setOnClickListener(new OnClickListener() {
             @Override
             public void onClick(View v) {
-                if (mOnFooterClickListener != null) {
-                    setFooterStatus(TYPE_LOADING_MORE);
-                    mOnFooterClickListener.onErrorClick();
-                }
+                onFooterClick(true);
             }
         });
 
         mFooter.findViewById(R.id.tv_pull_load_more).setOnClickListener(new OnClickListener() {
             @Override
             public void onClick(View v) {
-                if (mOnFooterClickListener != null) {
-                    setFooterStatus(TYPE_LOADING_MORE);
-                    mOnFooterClickListener.onLoadMoreClick();
-                }
+                onFooterClick(false);
             }
         });
     }
 
+    /**
+     * 点击footer重试或加载更多
+     *
+     * @param error 是否为加载失败后的重试
+     */
+    private void onFooterClick(boolean error) {
+        if (mOnFooterClickListener == null) {
+            return;
+        }
+        setFooterStatus(TYPE_LOADING_MORE);
+        if (mLatencyTracker != null) {
+            mLatencyTracker.onTrigger(false, LoadLatencyTracker.TRIGGER_FOOTER_CLICK);
+        }
+        if (error) {
+            mOnFooterClickListener.onErrorClick();
+        } else {
+            mOnFooterClickListener.onLoadMoreClick();
+        }
+    }
+
     /**
      * 初始化默认的footer
      */
     private void initDefaultFooter() {
-        setFooter(R.layout.view_recycler_load_more);
+        final LoadMoreFooterView footer = new LoadMoreFooterView(getContext());
+        setFooter(footer);
+        footer.setOnClickListener(new OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                FooterStatusHandle status = footer.getStatus();
+                if (status == FooterStatusHandle.TYPE_ERROR) {
+                    onFooterClick(true);
+                } else if (status == FooterStatusHandle.TYPE_PULL_LOAD_MORE) {
+                    onFooterClick(false);
+                }
+            }
+        });
     }
 
     /**
@@ -418,9 +708,12 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
         } else if (manager instanceof LinearLayoutManager) {
             return ((LinearLayoutManager) manager).findLastVisibleItemPosition();
         } else if (manager instanceof StaggeredGridLayoutManager) {
-            int[] into = new int[((StaggeredGridLayoutManager) manager).getSpanCount()];
-            ((StaggeredGridLayoutManager) manager).findLastVisibleItemPositions(into);
-            return findMax(into);
+            int spanCount = ((StaggeredGridLayoutManager) manager).getSpanCount();
+            if (mSpanPositions == null || mSpanPositions.length != spanCount) {
+                mSpanPositions = new int[spanCount];
+            }
+            ((StaggeredGridLayoutManager) manager).findLastVisibleItemPositions(mSpanPositions);
+            return findMax(mSpanPositions);
         }
         return -1;
     }
@@ -462,25 +755,31 @@ public class RefreshRecycleView extends SwipeRefreshLayout {
             });
         }
 
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            super.onLayout(changed, l, t, r, b);
+            RefreshRecycleView view = mRefreshRecycleView.get();
+            if (view != null && view.mWorkStats != null) {
+                view.mWorkStats.onLayout();
+            }
+        }
+
         @Override
         public void onScrollStateChanged(int state) {
             super.onScrollStateChanged(state);
             RefreshRecycleView view = mRefreshRecycleView.get();
-            if (view != null) {
-                if (state == SCROLL_STATE_IDLE && // 停止滚动
-                        view.mCanLoadMore
-                        && view.mOnLoadMoreListener != null  // 可以加载更多, 且有加载监听
-                        && mIsUp
-                        && !mIsLoadMore
-                        && view.findLastVisibleItemPosition() == view.getLayoutManager().getItemCount() - 1) { // 滚动到了最后一个子视图
-                    if (view.mFooterStatus != FooterStatusHandle.TYPE_ERROR) {
-                        if (view.isRefreshing()) {
-                            return;
-                        }
-                        view.setFooterStatus(TYPE_LOADING_MORE);
-                        view.mOnLoadMoreListener.onLoadMore(); // 执行加载更多
-                    }
-                }
+            if (view != null && state == SCROLL_STATE_IDLE && mIsUp) { // 停止滚动
+                view.tryLoadMore(0); // 滚动到了最后一个子视图
+            }
+        }
+
+        @Override
+        public void onScrolled(int dx, int dy) {
+            super.onScrolled(dx, dy);
+            RefreshRecycleView view = mRefreshRecycleView.get();
+            if (view != null && dy > 0 && view.mPrefetchDistance > 0) {
+                // 滚动过程中预加载
+                view.tryLoadMore(view.mPrefetchDistance);
             }
         }
 
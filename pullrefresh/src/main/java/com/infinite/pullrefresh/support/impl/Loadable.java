@@ -32,6 +32,11 @@ public interface Loadable {
 
     void onScrollChange(int state);
 
+    /**
+     * 松手时调用
+     *
+     * @return 是否已经开始回弹（调用了 startMoveTo），返回 false 时由 FlingLayout 回弹到 0
+     */
     boolean onStartFling(float offsetTop);
 
     void startLoad();
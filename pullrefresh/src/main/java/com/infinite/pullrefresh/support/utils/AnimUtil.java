@@ -4,98 +4,79 @@ import android.view.View;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
-import com.nineoldandroids.animation.ObjectAnimator;
-import com.nineoldandroids.view.ViewHelper;
+import static com.infinite.pullrefresh.support.utils.ViewAnimController.DEFAULT_DURATION;
 
 /**
  * Created by Ybao on 2015/11/7 0007.
+ * <p>
+ * 所有动画都交给视图自己的 {@link ViewAnimController}，同一视图同一属性的新动画会取消旧动画
  */
 public class AnimUtil {
+    private static final Interpolator LINEAR = new LinearInterpolator();
+
     public static void startRotation(View view, float toRotation) {
-        ObjectAnimator.ofFloat(view, "rotation", ViewHelper.getRotation(view), toRotation).start();
+        ViewAnimController.of(view).rotation(view.getRotation(), toRotation, DEFAULT_DURATION, 0, null);
     }
 
     public static void startRotation(View view, float toRotation, long duration, long startDelay) {
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "rotation", ViewHelper.getRotation(view), toRotation).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.start();
+        ViewAnimController.of(view).rotation(view.getRotation(), toRotation, duration, startDelay, null);
     }
 
     public static void startRotation(View view, float toRotation, long duration, long startDelay, int times) {
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "rotation", ViewHelper.getRotation(view), toRotation).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.setRepeatCount(times);
-        objectAnimator.setInterpolator(new LinearInterpolator());
-        objectAnimator.start();
+        ViewAnimController.of(view).rotation(view.getRotation(), toRotation, duration, startDelay, LINEAR, times);
     }
 
     public static void startShow(View view, float fromAlpha, long duration, long startDelay) {
-        ViewHelper.setAlpha(view, fromAlpha);
+        view.setAlpha(fromAlpha);
         view.setVisibility(View.VISIBLE);
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "alpha", fromAlpha, 1f).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.start();
+        ViewAnimController.of(view).alpha(fromAlpha, 1f, duration, startDelay, null);
     }
 
     public static void startHide(final View view, long duration, long startDelay) {
         view.setVisibility(View.VISIBLE);
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "alpha", ViewHelper.getAlpha(view), 0f).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.start();
+        ViewAnimController.of(view).alpha(view.getAlpha(), 0f, duration, startDelay, null);
 
     }
 
     public static void startShow(View view, float fromAlpha) {
-        ViewHelper.setAlpha(view, fromAlpha);
-        view.setVisibility(View.VISIBLE);
-        ObjectAnimator.ofFloat(view, "alpha", fromAlpha, 1f).start();
+        startShow(view, fromAlpha, DEFAULT_DURATION, 0);
     }
 
     public static void startHide(final View view) {
-        view.setVisibility(View.VISIBLE);
-        ObjectAnimator.ofFloat(view, "alpha", ViewHelper.getAlpha(view), 0f).start();
+        startHide(view, DEFAULT_DURATION, 0);
 
     }
 
 
     public static void startScale(final View view, float toScale) {
-        ObjectAnimator.ofFloat(view, "scaleX", ViewHelper.getScaleX(view), toScale).start();
-        ObjectAnimator.ofFloat(view, "scaleY", ViewHelper.getScaleY(view), toScale).start();
+        ViewAnimController.of(view).scale(view.getScaleX(), toScale, DEFAULT_DURATION, 0, null);
     }
 
     public static void startScale(final View view, float toScale, long duration, long startDelay, Interpolator setInterpolator) {
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "scaleX", ViewHelper.getScaleX(view), toScale).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.setInterpolator(setInterpolator);
-        objectAnimator.start();
-        objectAnimator = ObjectAnimator.ofFloat(view, "scaleY", ViewHelper.getScaleY(view), toScale).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.setInterpolator(setInterpolator);
-        objectAnimator.start();
+        ViewAnimController.of(view).scale(view.getScaleX(), toScale, duration, startDelay, setInterpolator);
     }
 
     public static void startScale(final View view, float fromScale, float toScale) {
-        ObjectAnimator.ofFloat(view, "scaleX", fromScale, toScale).start();
-        ObjectAnimator.ofFloat(view, "scaleY", fromScale, toScale).start();
+        ViewAnimController.of(view).scale(fromScale, toScale, DEFAULT_DURATION, 0, null);
     }
 
 
     public static void startScale(final View view, float fromScale, float toScale, long duration, long startDelay, Interpolator setInterpolator) {
-        ObjectAnimator objectAnimator = ObjectAnimator.ofFloat(view, "scaleX", fromScale, toScale).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.setInterpolator(setInterpolator);
-        objectAnimator.start();
-        objectAnimator = ObjectAnimator.ofFloat(view, "scaleY", fromScale, toScale).setDuration(duration);
-        objectAnimator.setStartDelay(startDelay);
-        objectAnimator.setInterpolator(setInterpolator);
-        objectAnimator.start();
+        ViewAnimController.of(view).scale(fromScale, toScale, duration, startDelay, setInterpolator);
     }
 
     public static void startFromY(final View view, float fromY) {
-        ObjectAnimator.ofFloat(view, "translationY", fromY, 0).start();
+        ViewAnimController.of(view).translationY(fromY, 0, DEFAULT_DURATION, 0, null);
     }
 
     public static void startToY(final View view, float toY) {
-        ObjectAnimator.ofFloat(view, "translationY", 0, toY).start();
+        ViewAnimController.of(view).translationY(0, toY, DEFAULT_DURATION, 0, null);
+    }
+
+    /**
+     * 取消视图上由AnimUtil启动的所有动画
+     */
+    public static void cancel(View view) {
+        ViewAnimController.of(view).cancel();
     }
 }
@@ -1,19 +1,57 @@
 package com.infinite.pullrefresh.support.utils;
 
+import android.support.v4.view.ViewCompat;
 import android.support.v4.widget.NestedScrollView;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.webkit.WebView;
 import android.widget.AbsListView;
 import android.widget.ScrollView;
 
+import com.infinite.pullrefresh.R;
 import com.infinite.pullrefresh.support.impl.Pullable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class CanPullUtil {
 
+    private static final List<EdgeDetectorFactory> sEdgeDetectorFactories = new ArrayList<>();
+
+    /**
+     * 为自定义的LayoutManager注册边缘检测，后注册的优先
+     *
+     * @param factory 返回null表示不支持该LayoutManager
+     */
+    public static void registerEdgeDetector(EdgeDetectorFactory factory) {
+        if (factory != null) {
+            sEdgeDetectorFactories.add(0, factory);
+        }
+    }
+
+    private static EdgeDetector createEdgeDetector(RecyclerView.LayoutManager layout) {
+        for (int i = 0, size = sEdgeDetectorFactories.size(); i < size; i++) {
+            EdgeDetector detector = sEdgeDetectorFactories.get(i).create(layout);
+            if (detector != null) {
+                return detector;
+            }
+        }
+        if (layout instanceof LinearLayoutManager) {
+            //包括GridLayoutManager
+            return new LinearEdgeDetector();
+        } else if (layout instanceof StaggeredGridLayoutManager) {
+            return new StaggeredEdgeDetector();
+        } else if (layout != null) {
+            return new ScrollRangeEdgeDetector();
+        }
+        return null;
+    }
+
     public static Pullable getPullAble(View view) {
         if (view == null) {
             return null;
@@ -27,7 +65,14 @@ public class CanPullUtil {
         } else if (view instanceof WebView) {
             return new WebViewCanPull((WebView) view);
         } else if (view instanceof RecyclerView) {
-            return new RecyclerViewCanPull((RecyclerView) view);
+            //同一个RecyclerView只注册一次监听
+            Object tag = view.getTag(R.id.pull_refresh_can_pull);
+            if (tag instanceof RecyclerViewCanPull) {
+                return (Pullable) tag;
+            }
+            RecyclerViewCanPull canPull = new RecyclerViewCanPull((RecyclerView) view);
+            view.setTag(R.id.pull_refresh_can_pull, canPull);
+            return canPull;
         }
         return null;
     }
@@ -93,45 +138,180 @@ public class CanPullUtil {
     }
 
 
-    private static class RecyclerViewCanPull implements Pullable {
+    /**
+     * RecyclerView的findFirstVisibleItemPosition等方法需要遍历子视图，
+     * 这里缓存边缘状态，只有滚动或布局后才重新计算，MOVE事件中查询为O(1)
+     */
+    private static class RecyclerViewCanPull extends RecyclerView.OnScrollListener implements Pullable,
+            View.OnAttachStateChangeListener, ViewTreeObserver.OnGlobalLayoutListener, EdgeStateCache.Detector {
+
+        RecyclerView recyclerView;
+        RecyclerView.LayoutManager layoutManager;
+        EdgeDetector edgeDetector;
+        private final EdgeStateCache mEdgeState = new EdgeStateCache(this);
+
         public RecyclerViewCanPull(RecyclerView recyclerView) {
             this.recyclerView = recyclerView;
+            recyclerView.addOnScrollListener(this);
+            recyclerView.addOnAttachStateChangeListener(this);
+            if (recyclerView.getWindowToken() != null) {
+                onViewAttachedToWindow(recyclerView);
+            }
         }
 
-        RecyclerView recyclerView;
-        LinearLayoutManager layoutManager;
-
         private void initLayoutManager() {
-            if (layoutManager == null) {
-                RecyclerView.LayoutManager layout = recyclerView.getLayoutManager();
-                if (layout != null && layout instanceof LinearLayoutManager) {
-                    layoutManager = (LinearLayoutManager) layout;
-                }
+            RecyclerView.LayoutManager layout = recyclerView.getLayoutManager();
+            if (layout != layoutManager) {
+                layoutManager = layout;
+                edgeDetector = createEdgeDetector(layout);
             }
         }
 
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            mEdgeState.invalidate();
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            mEdgeState.invalidate();
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            v.getViewTreeObserver().addOnGlobalLayoutListener(this);
+            mEdgeState.invalidate();
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void onViewDetachedFromWindow(View v) {
+            v.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+            mEdgeState.invalidate();
+        }
+
         @Override
         public boolean isGetTop() {
+            return mEdgeState.isAtTop();
+        }
+
+        @Override
+        public boolean isGetBottom() {
+            return mEdgeState.isAtBottom();
+        }
+
+        @Override
+        public boolean computeTop() {
+            //LayoutManager可能被替换，每次重新计算前检查
             initLayoutManager();
-            if (layoutManager != null) {
+            if (layoutManager != null && edgeDetector != null) {
                 if (layoutManager.getItemCount() == 0) {
                     return true;
-                } else if (layoutManager.findFirstVisibleItemPosition() == 0 && recyclerView.getChildAt(0).getTop() >= recyclerView.getPaddingTop()) {
+                }
+                return edgeDetector.isAtTop(recyclerView, layoutManager);
+            }
+            return false;
+        }
+
+        @Override
+        public boolean computeBottom() {
+            if (layoutManager != null && edgeDetector != null) {
+                if (layoutManager.getItemCount() == 0) {
                     return true;
                 }
+                return edgeDetector.isAtBottom(recyclerView, layoutManager);
             }
             return false;
         }
+    }
 
+    /**
+     * RecyclerView边缘检测，itemCount为0的情况已经在外部处理
+     */
+    public interface EdgeDetector {
+        boolean isAtTop(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager);
 
+        boolean isAtBottom(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager);
+    }
+
+    public interface EdgeDetectorFactory {
+        EdgeDetector create(RecyclerView.LayoutManager layoutManager);
+    }
+
+    private static class LinearEdgeDetector implements EdgeDetector {
         @Override
-        public boolean isGetBottom() {
-            initLayoutManager();
-            if (layoutManager != null) {
-                int count = layoutManager.getItemCount();
-                if (count == 0) {
-                    return true;
-                } else if (layoutManager.findLastCompletelyVisibleItemPosition() == count - 1) {
+        public boolean isAtTop(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            LinearLayoutManager manager = (LinearLayoutManager) layoutManager;
+            if (manager.findFirstVisibleItemPosition() == 0) {
+                View first = manager.findViewByPosition(0);
+                return first != null && first.getTop() >= recyclerView.getPaddingTop();
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isAtBottom(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            LinearLayoutManager manager = (LinearLayoutManager) layoutManager;
+            return manager.findLastCompletelyVisibleItemPosition() == manager.getItemCount() - 1;
+        }
+    }
+
+    /**
+     * 瀑布流，每列的位置数组重复使用，检测时不分配内存
+     */
+    private static class StaggeredEdgeDetector implements EdgeDetector {
+        private int[] mPositions;
+
+        private int[] positions(StaggeredGridLayoutManager manager) {
+            int spanCount = manager.getSpanCount();
+            if (mPositions == null || mPositions.length != spanCount) {
+                mPositions = new int[spanCount];
+            }
+            return mPositions;
+        }
+
+        /**
+         * 第0项可见、每列都有完整可见的item、所有子视图的顶部都没有被遮住，且不能再向上滚动。
+         * 只看第0项不够：较长的一列可能还有内容在上方
+         */
+        @Override
+        public boolean isAtTop(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            StaggeredGridLayoutManager manager = (StaggeredGridLayoutManager) layoutManager;
+            if (!contains(manager.findFirstVisibleItemPositions(positions(manager)), 0)
+                    || contains(manager.findFirstCompletelyVisibleItemPositions(positions(manager)), RecyclerView.NO_POSITION)) {
+                return false;
+            }
+            int top = recyclerView.getPaddingTop();
+            for (int i = 0, count = manager.getChildCount(); i < count; i++) {
+                if (manager.getDecoratedTop(manager.getChildAt(i)) < top) {
+                    return false;
+                }
+            }
+            return !ViewCompat.canScrollVertically(recyclerView, -1);
+        }
+
+        /**
+         * 最后一项已经布局且每列都到了末尾：最后一项可见时后面的item都已经布局，
+         * 只要所有子视图的底部都没有超出即可。任意一列看到最后一项就返回会让较长的列提前触发上拉
+         */
+        @Override
+        public boolean isAtBottom(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            StaggeredGridLayoutManager manager = (StaggeredGridLayoutManager) layoutManager;
+            if (!contains(manager.findLastVisibleItemPositions(positions(manager)), manager.getItemCount() - 1)) {
+                return false;
+            }
+            int bottom = recyclerView.getHeight() - recyclerView.getPaddingBottom();
+            for (int i = 0, count = manager.getChildCount(); i < count; i++) {
+                if (manager.getDecoratedBottom(manager.getChildAt(i)) > bottom) {
+                    return false;
+                }
+            }
+            return !ViewCompat.canScrollVertically(recyclerView, 1);
+        }
+
+        private static boolean contains(int[] positions, int position) {
+            for (int p : positions) {
+                if (p == position) {
                     return true;
                 }
             }
@@ -139,6 +319,21 @@ public class CanPullUtil {
         }
     }
 
+    /**
+     * 未知的LayoutManager，根据滚动范围判断
+     */
+    private static class ScrollRangeEdgeDetector implements EdgeDetector {
+        @Override
+        public boolean isAtTop(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            return !ViewCompat.canScrollVertically(recyclerView, -1);
+        }
+
+        @Override
+        public boolean isAtBottom(RecyclerView recyclerView, RecyclerView.LayoutManager layoutManager) {
+            return !ViewCompat.canScrollVertically(recyclerView, 1);
+        }
+    }
+
     private static class WebViewCanPull implements Pullable {
         public WebViewCanPull(WebView webView) {
             this.webView = webView;
@@ -1,9 +1,8 @@
 package com.infinite.pullrefresh.support.utils;
 
+import android.os.SystemClock;
 import android.view.View;
 
-import java.util.Calendar;
-
 /**
  * 防止快速点击
  * Created by Administrator on 9/15/2016.
@@ -14,7 +13,7 @@ public abstract class MyClickListener implements View.OnClickListener {
 
     @Override
     public void onClick(View v) {
-        long currentTime = Calendar.getInstance().getTimeInMillis();
+        long currentTime = SystemClock.uptimeMillis();
         if (currentTime - lastClickTime > MIN_CLICK_DELAY_TIME) {
             lastClickTime = currentTime;
             onMyClick(v);
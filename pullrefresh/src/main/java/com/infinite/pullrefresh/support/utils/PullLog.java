@@ -0,0 +1,26 @@
+package com.infinite.pullrefresh.support.utils;
+
+import android.util.Log;
+
+/**
+ * 拖动/回弹路径上的调试日志
+ * <p>
+ * DEBUG 为编译期常量，关闭时 javac 会把调用处的判断连同字符串拼接一起去掉，
+ * 参数使用基本类型，避免在每个 MOVE 事件中装箱或拼接字符串
+ */
+public class PullLog {
+
+    public static final boolean DEBUG = false;
+
+    public static void i(String tag, String name, float value) {
+        if (DEBUG) {
+            Log.i(tag, name + value);
+        }
+    }
+
+    public static void i(String tag, String name, int value) {
+        if (DEBUG) {
+            Log.i(tag, name + value);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.infinite.pullrefresh.support.utils;
+
+import android.support.v4.os.TraceCompat;
+
+/**
+ * systrace 中的一组区段，名称为 "tag:stage"
+ * <p>
+ * 名称在创建时拼好，begin/end 时不再拼接字符串。调用方持有的实例为 null 时表示未开启，
+ * 只需一次判断。begin 和 end 必须在同一线程成对调用
+ */
+public class TraceSections {
+
+    private static final int MAX_SECTION_LENGTH = 127;  //Trace.beginSection的名称长度限制
+
+    private final String[] mNames;
+
+    /**
+     * @param tag    区分实例的标签，例如页面名称
+     * @param stages 各阶段的名称，begin时使用下标
+     */
+    public TraceSections(String tag, String... stages) {
+        mNames = new String[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            String name = tag + ":" + stages[i];
+            mNames[i] = name.length() > MAX_SECTION_LENGTH ? name.substring(0, MAX_SECTION_LENGTH) : name;
+        }
+    }
+
+    public void begin(int stage) {
+        TraceCompat.beginSection(mNames[stage]);
+    }
+
+    public void end() {
+        TraceCompat.endSection();
+    }
+}
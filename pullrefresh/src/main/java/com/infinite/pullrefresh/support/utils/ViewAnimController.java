@@ -0,0 +1,124 @@
+package com.infinite.pullrefresh.support.utils;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.util.Property;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import com.infinite.pullrefresh.R;
+
+/**
+ * 单个视图的属性动画控制器，通过 {@link #of(View)} 获取，缓存在视图的tag上
+ * <p>
+ * 每种属性只有一个ObjectAnimator，新的动画会先取消同一属性上的旧动画再复用它，
+ * 快速来回拉动时不会叠加；属性通过 {@link View#ALPHA} 等Property直接调用setter，不走反射。
+ * 有动画在运行时才把视图切到硬件层，全部结束后恢复原来的layerType
+ */
+public class ViewAnimController {
+
+    public static final long DEFAULT_DURATION = 300;
+    private static final Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    private static final int ROTATION = 0;
+    private static final int ALPHA = 1;
+    private static final int SCALE_X = 2;
+    private static final int SCALE_Y = 3;
+    private static final int TRANSLATION_Y = 4;
+
+    private final View mView;
+    private final ObjectAnimator[] mAnimators = new ObjectAnimator[5];
+    private int mRunningCount;
+    private int mOldLayerType = View.LAYER_TYPE_NONE;
+
+    private final AnimatorListenerAdapter mLayerListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationStart(Animator animation) {
+            if (mRunningCount++ == 0) {
+                mOldLayerType = mView.getLayerType();
+                if (mOldLayerType != View.LAYER_TYPE_HARDWARE) {
+                    mView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                }
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (mRunningCount > 0 && --mRunningCount == 0 && mOldLayerType != View.LAYER_TYPE_HARDWARE) {
+                mView.setLayerType(mOldLayerType, null);
+            }
+        }
+    };
+
+    private ViewAnimController(View view) {
+        mView = view;
+    }
+
+    public static ViewAnimController of(View view) {
+        Object tag = view.getTag(R.id.pull_refresh_anim_controller);
+        if (tag instanceof ViewAnimController) {
+            return (ViewAnimController) tag;
+        }
+        ViewAnimController controller = new ViewAnimController(view);
+        view.setTag(R.id.pull_refresh_anim_controller, controller);
+        return controller;
+    }
+
+    public void rotation(float from, float to, long duration, long startDelay, Interpolator interpolator) {
+        rotation(from, to, duration, startDelay, interpolator, 0);
+    }
+
+    /**
+     * @param repeatCount 重复次数，与 {@link ObjectAnimator#setRepeatCount(int)} 相同
+     */
+    public void rotation(float from, float to, long duration, long startDelay, Interpolator interpolator, int repeatCount) {
+        start(ROTATION, View.ROTATION, from, to, duration, startDelay, interpolator, repeatCount);
+    }
+
+    public void alpha(float from, float to, long duration, long startDelay, Interpolator interpolator) {
+        start(ALPHA, View.ALPHA, from, to, duration, startDelay, interpolator, 0);
+    }
+
+    public void scale(float from, float to, long duration, long startDelay, Interpolator interpolator) {
+        start(SCALE_X, View.SCALE_X, from, to, duration, startDelay, interpolator, 0);
+        start(SCALE_Y, View.SCALE_Y, from, to, duration, startDelay, interpolator, 0);
+    }
+
+    public void translationY(float from, float to, long duration, long startDelay, Interpolator interpolator) {
+        start(TRANSLATION_Y, View.TRANSLATION_Y, from, to, duration, startDelay, interpolator, 0);
+    }
+
+    /**
+     * 取消该视图上所有正在进行的动画，属性停在当前值
+     */
+    public void cancel() {
+        for (ObjectAnimator animator : mAnimators) {
+            if (animator != null) {
+                animator.cancel();
+            }
+        }
+    }
+
+    /**
+     * @param interpolator 为null时使用默认的AccelerateDecelerateInterpolator
+     */
+    private void start(int index, Property<View, Float> property, float from, float to,
+                       long duration, long startDelay, Interpolator interpolator, int repeatCount) {
+        ObjectAnimator animator = mAnimators[index];
+        if (animator == null) {
+            animator = ObjectAnimator.ofFloat(mView, property, from, to);
+            animator.addListener(mLayerListener);
+            mAnimators[index] = animator;
+        } else {
+            animator.cancel();
+            animator.setFloatValues(from, to);
+        }
+        animator.setDuration(duration);
+        animator.setStartDelay(startDelay);
+        animator.setInterpolator(interpolator != null ? interpolator : DEFAULT_INTERPOLATOR);
+        animator.setRepeatCount(repeatCount);
+        animator.start();
+    }
+}
@@ -7,6 +7,8 @@ import android.util.Log;
 import android.view.View;
 import android.widget.AbsListView;
 
+import com.infinite.pullrefresh.R;
+
 /**
  * Created by ybao on 16/3/9.
  */
@@ -20,7 +22,14 @@ public class ViewScrollUtil {
         } else if (view instanceof AbsListView) {
             return new AbsListViewScrollGeter((AbsListView) view);
         } else if (view instanceof RecyclerView) {
-            return new RecyclerViewScrollGeter((RecyclerView) view);
+            //滚动监听和数据观察者只注册一次
+            Object tag = view.getTag(R.id.pull_refresh_scroll_geter);
+            if (tag instanceof RecyclerViewScrollGeter) {
+                return (ScrollGeter) tag;
+            }
+            RecyclerViewScrollGeter geter = new RecyclerViewScrollGeter((RecyclerView) view);
+            view.setTag(R.id.pull_refresh_scroll_geter, geter);
+            return geter;
         }
         return null;
     }
@@ -49,20 +58,122 @@ public class ViewScrollUtil {
         }
     }
 
-    private static class RecyclerViewScrollGeter implements ScrollGeter {
+    /**
+     * 累加滚动回调中真实的dy得到精确的滚动距离；
+     * 测量过的item高度记录在 {@link ItemHeightTree} 中，用于在数据变化后重新定位以及位置和偏移的互查。
+     * 构造时会注册滚动监听，请通过 {@link ViewScrollUtil#getScrollGeter(View)} 获取，同一个RecyclerView只创建一次
+     */
+    public static class RecyclerViewScrollGeter extends RecyclerView.OnScrollListener implements ScrollGeter {
         RecyclerView recyclerView;
-        LinearLayoutManager layoutManager;
+        private final ItemHeightTree mHeights = new ItemHeightTree();
+        private RecyclerView.Adapter mAdapter;
+        private int mScrollY;
+        private boolean mAnchorDirty = true;
+
+        private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                //保留测量过的高度，可见的item会在getScrollY中重新测量
+                mHeights.resize(mAdapter.getItemCount());
+                mAnchorDirty = true;
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                mHeights.invalidate(positionStart, itemCount);
+                mAnchorDirty = true;
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                mHeights.insert(positionStart, itemCount);
+                mAnchorDirty = true;
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                mHeights.remove(positionStart, itemCount);
+                mAnchorDirty = true;
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                mHeights.remove(fromPosition, itemCount);
+                mHeights.insert(toPosition, itemCount);
+                mAnchorDirty = true;
+            }
+        };
 
         public RecyclerViewScrollGeter(RecyclerView recyclerView) {
             this.recyclerView = recyclerView;
-            RecyclerView.LayoutManager layout = recyclerView.getLayoutManager();
-            if (layout != null && layout instanceof LinearLayoutManager) {
-                layoutManager = (LinearLayoutManager) layout;
-            } else {
+            recyclerView.addOnScrollListener(this);
+            if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
                 Log.w("RecyclerViewScrollGeter", "LayoutManager is null or Not is LinearLayoutManager");
             }
         }
 
+        private LinearLayoutManager getLayoutManager() {
+            RecyclerView.LayoutManager layout = recyclerView.getLayoutManager();
+            return layout instanceof LinearLayoutManager ? (LinearLayoutManager) layout : null;
+        }
+
+        private void checkAdapter() {
+            RecyclerView.Adapter adapter = recyclerView.getAdapter();
+            if (adapter != mAdapter) {
+                if (mAdapter != null) {
+                    mAdapter.unregisterAdapterDataObserver(mObserver);
+                }
+                mAdapter = adapter;
+                mHeights.setCount(adapter == null ? 0 : adapter.getItemCount());
+                if (adapter != null) {
+                    adapter.registerAdapterDataObserver(mObserver);
+                }
+                mAnchorDirty = true;
+            }
+        }
+
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            checkAdapter();
+            if (dy == 0) {
+                //布局变化时会回调(0, 0)
+                mAnchorDirty = true;
+            }
+            mScrollY += dy;
+            measureChildren();
+        }
+
+        /**
+         * 记录当前可见item的高度。网格布局中一行的高度只记在行首item上，其余item记0，
+         * 行首由布局时记录在LayoutParams中的span index判断，不需要再查SpanSizeLookup
+         */
+        private void measureChildren() {
+            LinearLayoutManager layoutManager = getLayoutManager();
+            if (layoutManager == null) {
+                return;
+            }
+            int spanCount = 1;
+            boolean grid = layoutManager instanceof GridLayoutManager;
+            if (grid) {
+                spanCount = ((GridLayoutManager) layoutManager).getSpanCount();
+            }
+            for (int i = 0, count = recyclerView.getChildCount(); i < count; i++) {
+                View child = recyclerView.getChildAt(i);
+                int position = recyclerView.getChildAdapterPosition(child);
+                if (position == RecyclerView.NO_POSITION) {
+                    continue;
+                }
+                int height = layoutManager.getDecoratedBottom(child) - layoutManager.getDecoratedTop(child);
+                if (mHeights.getEstimate() == 0) {
+                    mHeights.setEstimate(height / spanCount);
+                }
+                if (grid && ((GridLayoutManager.LayoutParams) child.getLayoutParams()).getSpanIndex() != 0) {
+                    height = 0;
+                }
+                mHeights.setHeight(position, height);
+            }
+        }
+
         @Override
         public int getScrollX() {
             return 0;
@@ -70,21 +181,39 @@ public class ViewScrollUtil {
 
         @Override
         public int getScrollY() {
-            if (layoutManager != null) {
-                int firstVisiblePosition = layoutManager.findFirstVisibleItemPosition();
-                View c = layoutManager.findViewByPosition(firstVisiblePosition);
-                if (c == null) {
+            checkAdapter();
+            if (mAnchorDirty) {
+                LinearLayoutManager layoutManager = getLayoutManager();
+                View c = recyclerView.getChildAt(0);
+                if (layoutManager == null || c == null) {
                     return 0;
                 }
-                int top = c.getTop() - recyclerView.getPaddingTop();
-                int n = firstVisiblePosition;
-                if (layoutManager instanceof GridLayoutManager) {
-                    int spanCount = ((GridLayoutManager) layoutManager).getSpanCount();
-                    n = n / spanCount;
+                measureChildren();
+                int position = recyclerView.getChildAdapterPosition(c);
+                if (position == RecyclerView.NO_POSITION) {
+                    return mScrollY;
                 }
-                return -top + n * c.getHeight();
+                int top = layoutManager.getDecoratedTop(c) - recyclerView.getPaddingTop();
+                mScrollY = mHeights.getOffset(position) - top;
+                mAnchorDirty = false;
             }
-            return 0;
+            return mScrollY;
+        }
+
+        /**
+         * @return 第position个item顶部到列表顶部的距离，未测量的item按估计高度计算
+         */
+        public int getOffsetOfPosition(int position) {
+            checkAdapter();
+            return mHeights.getOffset(position);
+        }
+
+        /**
+         * @return 距列表顶部offset处的item位置
+         */
+        public int getPositionAtOffset(int offset) {
+            checkAdapter();
+            return mHeights.getPosition(offset);
         }
     }
 
@@ -0,0 +1,42 @@
+package com.infinite.pullrefresh.layout;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 统计当前线程分配的字节数，依赖 HotSpot 的 com.sun.management.ThreadMXBean，不支持时跳过测试
+ */
+final class AllocationCounter {
+
+    private final com.sun.management.ThreadMXBean mBean;
+    private final long mThreadId = Thread.currentThread().getId();
+    private final long mOverhead;
+    private long mStart;
+
+    AllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(mBean.isThreadAllocatedMemorySupported());
+        mBean.setThreadAllocatedMemoryEnabled(true);
+        //两次读取之间本身的分配，从结果中扣除
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = mBean.getThreadAllocatedBytes(mThreadId);
+            overhead = Math.min(overhead, mBean.getThreadAllocatedBytes(mThreadId) - start);
+        }
+        mOverhead = overhead;
+    }
+
+    void start() {
+        mStart = mBean.getThreadAllocatedBytes(mThreadId);
+    }
+
+    /**
+     * @return start 之后分配的字节数
+     */
+    long stop() {
+        return mBean.getThreadAllocatedBytes(mThreadId) - mStart - mOverhead;
+    }
+}
@@ -0,0 +1,136 @@
+package com.infinite.pullrefresh.layout;
+
+import android.app.Activity;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.infinite.pullrefresh.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 按内容视图在顶部时 RecyclerView 的调用顺序驱动 FlingLayout 的嵌套滑动回调：
+ * 1000 次 onNestedPreScroll / onNestedScroll，先往下拉出再往回推过原点，结束后回弹，过程中不分配内存
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlingLayoutNestedScrollAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int STEPS = 1000;
+    private static final int FRAME_TIME = 16;
+
+    private FlingLayout mLayout;
+    private View mTarget;
+    private final int[] mConsumed = new int[2];
+    private int mScrollCallbacks;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        mLayout = new FlingLayout(activity);
+        mTarget = new FlingLayoutTouchAllocationTest.PullableView(activity);
+        ViewCompat.setNestedScrollingEnabled(mTarget, true);
+        mLayout.addView(mTarget,
+                new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        activity.setContentView(mLayout);
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+        mLayout.setOnScrollListener(new FlingLayout.OnScrollListener() {
+            @Override
+            public void onScroll(FlingLayout flingLayout, float y) {
+                mScrollCallbacks++;
+            }
+
+            @Override
+            public void onScrollChange(FlingLayout flingLayout, int state) {
+            }
+        });
+    }
+
+    private void startNestedScroll() {
+        assertTrue(mLayout.onStartNestedScroll(mTarget, mTarget, ViewCompat.SCROLL_AXIS_VERTICAL));
+        mLayout.onNestedScrollAccepted(mTarget, mTarget, ViewCompat.SCROLL_AXIS_VERTICAL);
+    }
+
+    /**
+     * 与 RecyclerView.scrollByInternal 相同：先询问父视图，剩余部分往上（dy < 0）滚不动时作为未消耗交给 onNestedScroll，
+     * 往下时由内容视图自己消耗
+     */
+    private void nestedScroll(int dy) {
+        int[] consumed = mConsumed;
+        consumed[0] = 0;
+        consumed[1] = 0;
+        mLayout.onNestedPreScroll(mTarget, 0, dy, consumed);
+        int remain = dy - consumed[1];
+        if (remain < 0) {
+            mLayout.onNestedScroll(mTarget, 0, 0, 0, remain);
+        } else {
+            mLayout.onNestedScroll(mTarget, 0, remain, 0, 0);
+        }
+    }
+
+    private void scroll() {
+        startNestedScroll();
+        for (int i = 0; i < STEPS; i++) {
+            nestedScroll(i < STEPS / 2 ? -8 : 9);
+        }
+        mLayout.onStopNestedScroll(mTarget);
+        for (int frame = 0; frame < 1000 && mLayout.getMoveY() != 0; frame++) {
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME);
+            mLayout.computeScroll();
+        }
+        mLayout.computeScroll();
+    }
+
+    @Test
+    public void nestedScrollDoesNotAllocate() {
+        //第一次用于预热，排除类加载和首次初始化
+        scroll();
+        mScrollCallbacks = 0;
+
+        AllocationCounter counter = new AllocationCounter();
+        counter.start();
+        scroll();
+        long bytes = counter.stop();
+
+        assertEquals("bytes allocated for " + STEPS + " nested scroll steps", 0, bytes);
+        assertEquals(0, mLayout.getMoveY(), 0);
+        assertTrue(mScrollCallbacks > STEPS / 2);
+    }
+
+    @Test
+    public void crossingZeroConsumesOnlyPulledDistance() {
+        startNestedScroll();
+        //内容在顶部时往上滚的距离没有被消耗，FlingLayout跟随拉出
+        mLayout.onNestedScroll(mTarget, 0, 0, 0, -20);
+        assertEquals(20, mLayout.getMoveY(), 0);
+        mConsumed[1] = 0;
+        mLayout.onNestedPreScroll(mTarget, 0, 50, mConsumed);
+        assertEquals(0, mLayout.getMoveY(), 0);
+        assertEquals(20, mConsumed[1]);
+    }
+
+    @Test
+    public void pullingFurtherConsumesAll() {
+        startNestedScroll();
+        mLayout.onNestedScroll(mTarget, 0, 0, 0, -100);
+        assertEquals(100, mLayout.getMoveY(), 0);
+        mConsumed[1] = 0;
+        mLayout.onNestedPreScroll(mTarget, 0, -30, mConsumed);
+        assertEquals(-30, mConsumed[1]);
+        //继续往外拉时有阻尼
+        assertTrue(mLayout.getMoveY() > 100 && mLayout.getMoveY() < 130);
+    }
+}
@@ -0,0 +1,153 @@
+package com.infinite.pullrefresh.layout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.infinite.pullrefresh.BuildConfig;
+import com.infinite.pullrefresh.support.impl.Pullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FlingLayout 的拖动和回弹不分配内存：1000 个 MOVE 经过 dispatchTouchEvent，松手后 computeScroll 直到回到原位，
+ * 包括 moveTo、setScrollState、OnScrollListener 和 GestureMetrics 的回调
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class FlingLayoutTouchAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int MOVES = 1000;
+    private static final int FRAME_TIME = 16;
+
+    private FlingLayout mLayout;
+    private int mScrollCallbacks;
+    private int mGestures;
+    private MotionEvent[] mEvents;
+
+    /**
+     * 始终在顶部和底部的内容视图
+     */
+    static class PullableView extends View implements Pullable {
+        PullableView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean isGetBottom() {
+            return true;
+        }
+
+        @Override
+        public boolean isGetTop() {
+            return true;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        mLayout = new FlingLayout(activity);
+        mLayout.addView(new PullableView(activity),
+                new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        activity.setContentView(mLayout);
+        mLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mLayout.layout(0, 0, WIDTH, HEIGHT);
+        mLayout.setOnScrollListener(new FlingLayout.OnScrollListener() {
+            @Override
+            public void onScroll(FlingLayout flingLayout, float y) {
+                mScrollCallbacks++;
+            }
+
+            @Override
+            public void onScrollChange(FlingLayout flingLayout, int state) {
+            }
+        });
+        GestureMetrics metrics = new GestureMetrics();
+        metrics.setListener(new GestureMetrics.Listener() {
+            @Override
+            public void onGesture(GestureMetrics.Gesture gesture) {
+                mGestures++;
+            }
+        });
+        mLayout.setGestureMetrics(metrics);
+    }
+
+    @After
+    public void tearDown() {
+        if (mEvents != null) {
+            for (MotionEvent event : mEvents) {
+                event.recycle();
+            }
+        }
+    }
+
+    /**
+     * 按下、1000 个 MOVE（往下拉 70 次、往回推 30 次交替，不会回到原点）、松手
+     */
+    private static MotionEvent[] obtainGesture(long downTime) {
+        MotionEvent[] events = new MotionEvent[MOVES + 2];
+        float x = WIDTH / 2f;
+        float y = 100;
+        events[0] = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        for (int i = 1; i <= MOVES; i++) {
+            y += i % 100 < 70 ? 6 : -4;
+            events[i] = MotionEvent.obtain(downTime, downTime + i * 8, MotionEvent.ACTION_MOVE, x, y, 0);
+        }
+        events[MOVES + 1] = MotionEvent.obtain(downTime, downTime + (MOVES + 1) * 8, MotionEvent.ACTION_UP, x, y, 0);
+        return events;
+    }
+
+    /**
+     * 分发整个手势，然后按帧推进动画时间执行 computeScroll 直到回到原位
+     */
+    private void runGesture(MotionEvent[] events) {
+        for (MotionEvent event : events) {
+            mLayout.dispatchTouchEvent(event);
+        }
+        for (int frame = 0; frame < 1000 && mLayout.getMoveY() != 0; frame++) {
+            Robolectric.getForegroundThreadScheduler().advanceBy(FRAME_TIME);
+            mLayout.computeScroll();
+        }
+        //回到原位后的下一帧切换为空闲状态
+        mLayout.computeScroll();
+    }
+
+    @Test
+    public void dragAndSettleDoNotAllocate() {
+        //事件在统计开始前创建；第一次手势用于预热，排除类加载和首次初始化
+        MotionEvent[] warmUp = obtainGesture(0);
+        MotionEvent[] measured = obtainGesture(100000);
+        mEvents = new MotionEvent[warmUp.length + measured.length];
+        System.arraycopy(warmUp, 0, mEvents, 0, warmUp.length);
+        System.arraycopy(measured, 0, mEvents, warmUp.length, measured.length);
+        runGesture(warmUp);
+        assertEquals(0, mLayout.getMoveY(), 0);
+        mScrollCallbacks = 0;
+
+        AllocationCounter counter = new AllocationCounter();
+        counter.start();
+        runGesture(measured);
+        long bytes = counter.stop();
+
+        assertEquals("bytes allocated for " + MOVES + " MOVE events and the settle", 0, bytes);
+        assertEquals(0, mLayout.getMoveY(), 0);
+        //拖动和回弹确实经过了moveTo
+        assertTrue(mScrollCallbacks > MOVES / 2);
+        assertEquals(2, mGestures);
+    }
+}
@@ -0,0 +1,253 @@
+package com.infinite.pullrefresh.recycler;
+
+import android.app.Activity;
+import android.support.v4.widget.SwipeRefreshLayout;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.infinite.pullrefresh.BuildConfig;
+
+import org.json.JSONObject;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * RefreshRecycleView + RefreshAdapter 的脚本化场景：下拉刷新、连续加载 50 页、切换头部、切换 LayoutManager
+ * <p>
+ * 每个场景记录 {@link RecyclerWorkStats} 和主线程分配的字节数，全部结束后以 JSON 写入
+ * build/reports/recycler-scenarios.json，用于对比优化前后的趋势。
+ * 分配的字节数包含 Robolectric 自身的开销，只适合前后对比；JVM 不支持统计时为 -1
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class RecyclerScenarioTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int ITEM_HEIGHT = 200;
+    private static final int PAGE_SIZE = 20;
+    private static final int LOAD_MORE_PAGES = 50;
+
+    private static final JSONObject sResults = new JSONObject();
+
+    private RefreshRecycleView mView;
+    private TestAdapter mAdapter;
+    private RecyclerWorkStats mStats;
+
+    static class TestAdapter extends RefreshAdapter<BaseRecyclerViewHolder, String> {
+
+        TestAdapter(RefreshRecycleView view) {
+            super(new ArrayList<String>(), view, PAGE_SIZE);
+        }
+
+        @Override
+        public BaseRecyclerViewHolder onCreateHolder(ViewGroup parent, int viewType) {
+            TextView view = new TextView(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return new BaseRecyclerViewHolder(view) {
+                @Override
+                protected void onBindViews(View itemView) {
+                }
+            };
+        }
+
+        @Override
+        public void onBindHolder(BaseRecyclerViewHolder holder, int position, String data) {
+            ((TextView) holder.getRootView()).setText(data);
+        }
+    }
+
+    private static List<String> page(int page) {
+        List<String> data = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            data.add("item " + ((page - 1) * PAGE_SIZE + i));
+        }
+        return data;
+    }
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        mView = new RefreshRecycleView(activity);
+        activity.setContentView(mView);
+        mAdapter = new TestAdapter(mView);
+        mView.setAdapter(mAdapter);
+        mView.setPrefetchDistance(1);
+        mView.setOnRefreshListener(new SwipeRefreshLayout.OnRefreshListener() {
+            @Override
+            public void onRefresh() {
+                deliver(true, 1);
+            }
+        });
+        mView.setPagedDataSource(new PagedDataSource() {
+            @Override
+            public void loadPage(int page) {
+                deliver(false, page);
+            }
+        });
+        mStats = new RecyclerWorkStats();
+        mView.setWorkStats(mStats);
+    }
+
+    /**
+     * 模拟异步返回数据，在下一次 {@link #layout()} 时交给adapter
+     */
+    private void deliver(final boolean refresh, final int page) {
+        mView.post(new Runnable() {
+            @Override
+            public void run() {
+                mAdapter.addData(refresh, page(page));
+            }
+        });
+    }
+
+    /**
+     * 执行主线程上等待的任务，需要时完成一次布局
+     */
+    private void layout() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        if (mView.isLayoutRequested()) {
+            mView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            mView.layout(0, 0, WIDTH, HEIGHT);
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadBean.isThreadAllocatedMemorySupported()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+                return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 从当前状态开始清零统计，运行场景并记录结果
+     */
+    private void record(String name, Runnable scenario) throws Exception {
+        layout();
+        mStats.reset();
+        long start = allocatedBytes();
+        scenario.run();
+        long end = allocatedBytes();
+        JSONObject json = mStats.toJson();
+        json.put("allocatedBytes", start < 0 ? -1 : end - start);
+        json.put("items", mAdapter.getItemCount());
+        sResults.put(name, json);
+    }
+
+    private void refreshFirstPage() {
+        mView.autoRefresh();
+        layout();
+    }
+
+    @Test
+    public void pullToRefresh() throws Exception {
+        refreshFirstPage();
+        record("pullToRefresh", new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 5; i++) {
+                    mView.autoRefresh();
+                    layout();
+                }
+            }
+        });
+        assertEquals(5, mStats.getPagesLoaded());
+        assertEquals(5, mStats.getDataSetChanges());
+        assertEquals(PAGE_SIZE, mAdapter.getDataContainer().size());
+    }
+
+    @Test
+    public void loadMorePages() throws Exception {
+        refreshFirstPage();
+        record("loadMore" + LOAD_MORE_PAGES + "Pages", new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < LOAD_MORE_PAGES * 10 && mStats.getPagesLoaded() < LOAD_MORE_PAGES; i++) {
+                    mView.getRecycleView().scrollBy(0, HEIGHT);
+                    layout();
+                }
+            }
+        });
+        assertEquals(LOAD_MORE_PAGES, mStats.getPagesLoaded());
+        assertEquals((LOAD_MORE_PAGES + 1) * PAGE_SIZE, mAdapter.getDataContainer().size());
+        //ViewHolder被复用，创建次数与页数无关
+        assertTrue(mStats.getHolderCreations() < PAGE_SIZE * 2);
+    }
+
+    @Test
+    public void toggleHeader() throws Exception {
+        TextView header = new TextView(mView.getContext());
+        header.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+        mView.setHeader(header);
+        refreshFirstPage();
+        record("toggleHeader", new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 20; i++) {
+                    mView.setHeaderVisible(i % 2 == 1);
+                    layout();
+                }
+            }
+        });
+        assertEquals(20, mStats.getDataSetChanges());
+        assertTrue(mAdapter.isHeaderVisible());
+    }
+
+    @Test
+    public void switchLayoutManager() throws Exception {
+        refreshFirstPage();
+        record("switchLayoutManager", new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 3; i++) {
+                    mView.setLayoutManager(new GridLayoutManager(mView.getContext(), 2));
+                    layout();
+                    mView.setLayoutManager(new StaggeredGridLayoutManager(2, StaggeredGridLayoutManager.VERTICAL));
+                    layout();
+                    mView.setLayoutManager(new LinearLayoutManager(mView.getContext()));
+                    layout();
+                }
+            }
+        });
+        assertTrue(mStats.getLayoutPasses() >= 9);
+    }
+
+    @AfterClass
+    public static void writeResults() throws Exception {
+        File file = new File("build/reports/recycler-scenarios.json");
+        file.getParentFile().mkdirs();
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(sResults.toString(2));
+        } finally {
+            writer.close();
+        }
+    }
+}